@@ -0,0 +1,2 @@
+-- パスワードハッシュ値に方式・コストパラメータを含めるため桁数を拡張
+ALTER TABLE m_user ALTER COLUMN password TYPE VARCHAR(255);
@@ -0,0 +1,12 @@
+-- メール送信キューテーブルに送信状態を追加
+ALTER TABLE t_mail_que ADD COLUMN send_status SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE t_mail_que ADD COLUMN retry_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE t_mail_que ADD COLUMN next_send_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+ALTER TABLE t_mail_que ADD COLUMN send_date TIMESTAMP;
+
+-- 既存データは送信済みとして扱う
+UPDATE t_mail_que SET send_status = 1, send_date = last_modified_date;
+
+-- 未送信キュー取得用の部分インデックス
+CREATE INDEX idx_t_mail_que_unsent ON t_mail_que (next_send_date, mail_que_id)
+	WHERE send_status = 0 AND delete_flg = 0;
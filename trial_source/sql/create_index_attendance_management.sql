@@ -0,0 +1,4 @@
+-- 勤怠一覧取得（TStudentAttendanceMapper#getAttendanceManagement）用のインデックス
+-- 結合キーを型変換せずに比較するため、m_section.dateとt_student_attendance.training_dateはDATE型であること
+CREATE INDEX idx_m_section_course_date ON m_section (course_id, date);
+CREATE INDEX idx_t_student_attendance_user_date ON t_student_attendance (lms_user_id, training_date);
@@ -0,0 +1,6 @@
+-- 勤怠未入力日取得用の部分インデックス（TStudentAttendanceMapper#getNotEnteredTrainingDateListと条件を合わせる）
+CREATE INDEX idx_t_student_attendance_not_entered ON t_student_attendance (lms_user_id, training_date)
+	WHERE delete_flg = 0
+		AND status != 1
+		AND (training_start_time = '' OR training_end_time = ''
+			OR training_start_time IS NULL OR training_end_time IS NULL);
@@ -2,6 +2,7 @@ package jp.co.sss.lms.controller;
 
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,14 +12,25 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.CourseAttendanceDto;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.form.AttendanceForm;
+import jp.co.sss.lms.form.BulkAttendanceForm;
 import jp.co.sss.lms.form.DailyAttendanceForm;
+import jp.co.sss.lms.service.BulkAttendanceService;
+import jp.co.sss.lms.service.CourseAttendanceService;
+import jp.co.sss.lms.service.CourseService;
 import jp.co.sss.lms.service.StudentAttendanceService;
+import jp.co.sss.lms.util.AttendanceUtil;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginUserUtil;
+import jp.co.sss.lms.util.MessageUtil;
 
 /**
  * 勤怠管理コントローラ
@@ -32,6 +44,20 @@ public class AttendanceController {
 	@Autowired
 	private StudentAttendanceService studentAttendanceService;
 	@Autowired
+	private CourseAttendanceService courseAttendanceService;
+	@Autowired
+	private BulkAttendanceService bulkAttendanceService;
+	@Autowired
+	private CourseService courseService;
+	@Autowired
+	private AttendanceUtil attendanceUtil;
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private LoginUserUtil loginUserUtil;
+	@Autowired
 	private LoginUserDto loginUserDto;
 
 	/**
@@ -169,4 +195,154 @@ public class AttendanceController {
 		return "attendance/detail";
 	}
 
-}
\ No newline at end of file
+	/**
+	 * コース勤怠一覧画面 初期表示・ページ切替
+	 * 
+	 * @param courseId コースID（未指定の場合はログインユーザーのコース）
+	 * @param page     ページ番号
+	 * @param model
+	 * @return コース勤怠一覧画面
+	 */
+	@RequestMapping(path = "/list", method = RequestMethod.GET)
+	public String list(@RequestParam(required = false) Integer courseId,
+			@RequestParam(defaultValue = "1") int page, Model model) {
+
+		if (courseId == null) {
+			courseId = loginUserDto.getCourseId();
+		}
+		// パラメータチェック
+		String message = courseService.checkCourseId(courseId);
+		if (!message.isEmpty()) {
+			return "illegal";
+		}
+		// 企業担当者は所属企業の受講生のみ
+		Integer companyId = loginUserUtil.isCompany() ? loginUserDto.getCompanyId() : null;
+		CourseAttendanceDto courseAttendanceDto = courseAttendanceService
+				.getCourseAttendance(courseId, companyId, page);
+		model.addAttribute("courseAttendanceDto", courseAttendanceDto);
+
+		return "attendance/list";
+	}
+
+	/**
+	 * 勤怠一括登録画面 初期表示
+	 * 
+	 * @param courseId     コースID（未指定の場合はログインユーザーのコース）
+	 * @param trainingDate 日付（yyyy/M/d形式、未指定の場合は本日）
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", method = RequestMethod.GET)
+	public String bulkRegist(@RequestParam(required = false) Integer courseId,
+			@RequestParam(required = false) String trainingDate, Model model) {
+
+		if (courseId == null) {
+			courseId = loginUserDto.getCourseId();
+		}
+		// パラメータチェック
+		String message = courseService.checkCourseId(courseId);
+		if (!message.isEmpty()) {
+			return "illegal";
+		}
+		List<String> errorBox = new ArrayList<>();
+		Date date = trainingDate == null ? attendanceUtil.getTrainingDate()
+				: parseTrainingDate(trainingDate, errorBox);
+		return bulkRegistResult(courseId, date, 0, errorBox, model);
+	}
+
+	/**
+	 * 勤怠一括登録画面 『登録』ボタン押下
+	 * 
+	 * @param bulkAttendanceForm
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", params = "complete", method = RequestMethod.POST)
+	public String bulkRegistComplete(@ModelAttribute BulkAttendanceForm bulkAttendanceForm,
+			Model model) {
+
+		String message = courseService.checkCourseId(bulkAttendanceForm.getCourseId());
+		if (!message.isEmpty()) {
+			return "illegal";
+		}
+		// エラーのある行を除いて登録
+		List<String> errorBox = new ArrayList<>();
+		Date date = parseTrainingDate(bulkAttendanceForm.getTrainingDate(), errorBox);
+		int count = 0;
+		if (errorBox.isEmpty()) {
+			count = bulkAttendanceService.regist(bulkAttendanceForm, date, errorBox);
+		}
+		return bulkRegistResult(bulkAttendanceForm.getCourseId(), date, count, errorBox, model);
+	}
+
+	/**
+	 * 勤怠一括登録画面 『CSVアップロード』ボタン押下
+	 * 
+	 * @param courseId
+	 * @param trainingDate
+	 * @param csvFile
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	@RequestMapping(path = "/bulkRegist", params = "upload", method = RequestMethod.POST)
+	public String bulkRegistUpload(@RequestParam Integer courseId, @RequestParam String trainingDate,
+			@RequestParam MultipartFile csvFile, Model model) {
+
+		String message = courseService.checkCourseId(courseId);
+		if (!message.isEmpty()) {
+			return "illegal";
+		}
+		// エラーのある行を除いて登録
+		List<String> errorBox = new ArrayList<>();
+		Date date = parseTrainingDate(trainingDate, errorBox);
+		int count = 0;
+		if (errorBox.isEmpty()) {
+			count = bulkAttendanceService.registCsv(courseId, date, csvFile, errorBox);
+		}
+		return bulkRegistResult(courseId, date, count, errorBox, model);
+	}
+
+	/**
+	 * 勤怠一括登録の日付の変換
+	 * 
+	 * @param trainingDate 日付（yyyy/M/d形式）
+	 * @param errorBox
+	 * @return 日付（形式が不正な場合はエラーメッセージを追加し、本日の研修日）
+	 */
+	private Date parseTrainingDate(String trainingDate, List<String> errorBox) {
+		if (trainingDate != null) {
+			try {
+				return dateUtil.parse(trainingDate);
+			} catch (ParseException e) {
+				// 下でエラーメッセージを追加する
+			}
+		}
+		errorBox.add(messageUtil.getMessage(Constants.VALID_KEY_INVALID, new String[] { "日付" }));
+		return attendanceUtil.getTrainingDate();
+	}
+
+	/**
+	 * 勤怠一括登録後の画面表示（登録後の勤怠情報を再取得する）
+	 * 
+	 * @param courseId
+	 * @param trainingDate
+	 * @param count        登録・更新件数
+	 * @param errorBox
+	 * @param model
+	 * @return 勤怠一括登録画面
+	 */
+	private String bulkRegistResult(Integer courseId, Date trainingDate, int count,
+			List<String> errorBox, Model model) {
+		if (!errorBox.isEmpty()) {
+			model.addAttribute("errorBox", errorBox);
+		}
+		if (count > 0) {
+			model.addAttribute("message",
+					messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE));
+		}
+		model.addAttribute("bulkAttendanceForm",
+				bulkAttendanceService.getBulkAttendanceForm(courseId, trainingDate));
+		return "attendance/bulkRegist";
+	}
+
+}
@@ -2,6 +2,7 @@ package jp.co.sss.lms.controller;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -90,4 +91,30 @@ public class ReportController {
 				dailyReportDownloadForm.getDailyReportSubmitId(), response);
 	}
 
+	/**
+	 * ユーザー一覧画面 『一括ダウンロード（レポート）』ボタン押下<br>
+	 * 不正なパラメータの場合は400エラーを返却する。
+	 * 
+	 * @param dailyReportDownloadForm
+	 * @param response
+	 * @throws IOException
+	 */
+	@RequestMapping(path = "/downloadList", method = RequestMethod.POST)
+	@ResponseBody
+	public void downloadList(DailyReportDownloadForm dailyReportDownloadForm,
+			HttpServletResponse response) throws IOException {
+
+		// パラメータチェック
+		List<Integer[]> idPairList = reportService.getDownloadIdPairList(
+				dailyReportDownloadForm.getDailyReportIdList(),
+				dailyReportDownloadForm.getDailyReportSubmitIdList());
+		if (idPairList == null) {
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+
+		// レポート一括ダウンロード
+		reportService.downloadList(idPairList, response);
+	}
+
 }
@@ -0,0 +1,29 @@
+package jp.co.sss.lms.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class CourseAttendanceDto {
+
+	/** コースID */
+	private Integer courseId;
+	/** 研修日リスト */
+	private List<Date> trainingDateList;
+	/** 受講生ごとの勤怠リスト */
+	private List<CourseAttendanceStudentDto> studentList;
+	/** 受講生数 */
+	private int studentCount;
+	/** ページ番号（1始まり） */
+	private int page;
+	/** ページ数 */
+	private int pageCount;
+
+}
@@ -0,0 +1,32 @@
+package jp.co.sss.lms.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * コース勤怠一覧 受講生ごとの勤怠DTO
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class CourseAttendanceStudentDto {
+
+	/** LMSユーザID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 研修日ごとのステータス表示名 */
+	private List<String> statusDispNameList;
+	/** 遅刻回数（遅刻＆早退を含む） */
+	private int tardyCount;
+	/** 早退回数（遅刻＆早退を含む） */
+	private int leavingEarlyCount;
+	/** 欠席回数 */
+	private int absentCount;
+	/** 未入力日数 */
+	private int notEnteredCount;
+	/** 中抜け時間合計（文字列） */
+	private String blankTimeValue;
+
+}
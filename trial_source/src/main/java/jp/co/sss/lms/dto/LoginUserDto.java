@@ -47,12 +47,10 @@ public class LoginUserDto implements Serializable {
 	private String courseName;
 	/** セキュリティ同意フラグ */
 	private Short securityAgreeFlg;
-	/** パスワードNG回数 */
-	private Integer passwordNgCount;
 	/** パスワード変更日付 */
 	private Date passwordChangeDate;
-	/** パスワードNG日付 */
-	private String passwordNgDate;
+	/** パスワード有効期限（エポックミリ秒、未設定の場合は0） */
+	private long passwordExpireTime;
 	/** サポート表示 */
 	private Short supportAvailable;
 	/** メールアドレス */
@@ -38,6 +38,8 @@ public class LoginUser {
 	private String courseName;
 	/** セキュリティ同意フラグ */
 	private Short securityAgreeFlg;
+	/** パスワード（ハッシュ値、ログインID指定の取得時のみ） */
+	private String password;
 	/** パスワード変更日付 */
 	private Date passwordChangeDate;
 	/** サポート表示 */
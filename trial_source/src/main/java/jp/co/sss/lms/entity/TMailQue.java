@@ -24,6 +24,14 @@ public class TMailQue {
 	private String subject;
 	/** 本文 */
 	private String body;
+	/** 送信状態 */
+	private Short sendStatus;
+	/** 再送回数 */
+	private Integer retryCount;
+	/** 次回送信日時 */
+	private Date nextSendDate;
+	/** 送信日時 */
+	private Date sendDate;
 	/** 削除フラグ */
 	private Short deleteFlg;
 	/** 初回作成者 */
@@ -0,0 +1,58 @@
+package jp.co.sss.lms.filter;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * コントローラーメトリクスインターセプター<br>
+ * コントローラーのメソッドごとに処理時間と件数をタイマー（lms.controller）に記録する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+	/** 開始時刻を保持するリクエスト属性名 */
+	private static final String ATTR_START = ControllerMetricsInterceptor.class.getName() + ".start";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			request.setAttribute(ATTR_START, System.nanoTime());
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object start = request.getAttribute(ATTR_START);
+		if (!(start instanceof Long) || !(handler instanceof HandlerMethod)) {
+			return;
+		}
+		HandlerMethod handlerMethod = (HandlerMethod) handler;
+		// 未処理の例外はこの時点でステータスが未設定のため、500として記録する
+		int status = ex == null ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		Timer.builder("lms.controller")
+				.tag("controller", handlerMethod.getBeanType().getSimpleName())
+				.tag("method", handlerMethod.getMethod().getName())
+				.tag("status", String.valueOf(status))
+				.tag("exception", ex == null ? "none" : ex.getClass().getSimpleName())
+				.register(meterRegistry)
+				.record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+	}
+
+}
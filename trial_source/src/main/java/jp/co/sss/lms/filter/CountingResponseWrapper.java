@@ -0,0 +1,160 @@
+package jp.co.sss.lms.filter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * 出力バイト数を数えるレスポンスラッパー<br>
+ * 本文はバッファリングせずそのまま委譲し、書き込まれた量だけを数える。
+ * Writer経由の出力はUTF-8でエンコードした場合のバイト数として数える。
+ *
+ * @author 東京ITスクール
+ */
+public class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+	/** 出力バイト数 */
+	private long byteCount;
+	/** 出力ストリーム */
+	private ServletOutputStream outputStream;
+	/** ライター */
+	private PrintWriter writer;
+
+	public CountingResponseWrapper(HttpServletResponse response) {
+		super(response);
+	}
+
+	/**
+	 * 出力バイト数の取得
+	 *
+	 * @return 出力バイト数
+	 */
+	public long getByteCount() {
+		return byteCount;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (outputStream == null) {
+			outputStream = new CountingOutputStream(super.getOutputStream());
+		}
+		return outputStream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			writer = new PrintWriter(new CountingWriter(super.getWriter()));
+		}
+		return writer;
+	}
+
+	/**
+	 * バイト数を数える出力ストリーム
+	 */
+	private final class CountingOutputStream extends ServletOutputStream {
+
+		private final ServletOutputStream delegate;
+
+		private CountingOutputStream(ServletOutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+			byteCount++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+			byteCount += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		@Override
+		public boolean isReady() {
+			return delegate.isReady();
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			delegate.setWriteListener(writeListener);
+		}
+	}
+
+	/**
+	 * UTF-8換算のバイト数を数えるライター
+	 */
+	private final class CountingWriter extends Writer {
+
+		private final PrintWriter delegate;
+
+		private CountingWriter(PrintWriter delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			delegate.write(c);
+			byteCount += utf8Length((char) c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			delegate.write(cbuf, off, len);
+			for (int i = off; i < off + len; i++) {
+				byteCount += utf8Length(cbuf[i]);
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			delegate.write(str, off, len);
+			for (int i = off; i < off + len; i++) {
+				byteCount += utf8Length(str.charAt(i));
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			delegate.close();
+		}
+
+		/**
+		 * 1文字分のUTF-8バイト数（サロゲートペアは各2バイトとして合計4バイト）
+		 *
+		 * @param c
+		 * @return バイト数
+		 */
+		private int utf8Length(char c) {
+			if (c < 0x80) {
+				return 1;
+			} else if (c < 0x800 || Character.isSurrogate(c)) {
+				return 2;
+			}
+			return 3;
+		}
+	}
+
+}
@@ -2,6 +2,7 @@ package jp.co.sss.lms.filter;
 
 import java.io.IOException;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -9,28 +10,68 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import jp.co.sss.lms.util.AccessControlUtil;
 import jp.co.sss.lms.util.LoggingUtil;
+import jp.co.sss.lms.util.RouteTrie;
 
 /**
- * ロギングフィルター
+ * ロギングフィルター<br>
+ * 既定では1リクエストにつき1行のJSONアクセスログを出力する。
+ * 入力情報は設定したパスに限り、値ごとの最大文字数で切り詰めて出力する。
  * 
  * @author 東京ITスクール
  */
 @Component
 @Order(1)
 public class LoggingFilter implements Filter {
-	
+
+	/** 従来形式（ヘッダ・入力情報の全出力）を示すログ形式 */
+	private static final String FORMAT_LEGACY = "legacy";
+
 	@Autowired
 	private LoggingUtil loggingUtil;
+	@Autowired
+	private AccessControlUtil accessControlUtil;
+
+	/** ログ形式（json/legacy） */
+	@Value("${setting.access.log.format:json}")
+	private String logFormat;
+	/** 入力情報を出力するパス（コンテキストパス以降の前方一致、カンマ区切り） */
+	@Value("${setting.access.log.param.path:}")
+	private String paramPath;
+	/** 入力情報の値ごとの最大文字数 */
+	@Value("${setting.access.log.param.max:200}")
+	private int paramMaxLength;
+
+	/** 入力情報を出力するパス */
+	private RouteTrie paramTrie;
 
 	private final Logger logger = LoggerFactory.getLogger(getClass());
+	private final Logger accessLogger = LoggerFactory.getLogger("jp.co.sss.lms.access");
+
+	/**
+	 * 入力情報を出力するパスの読込
+	 */
+	@PostConstruct
+	public void initParamPath() {
+		RouteTrie.Builder builder = new RouteTrie.Builder();
+		for (String path : StringUtils.split(paramPath, ',')) {
+			if (!path.isBlank()) {
+				builder.addPrefix(path.trim());
+			}
+		}
+		paramTrie = builder.build();
+	}
 
 	@Override
 	public void init(FilterConfig filterConfig) throws ServletException {
@@ -41,10 +82,37 @@ public class LoggingFilter implements Filter {
 			throws IOException, ServletException {
 		HttpServletRequest httpReq = ((HttpServletRequest) request);
 		String uri = httpReq.getRequestURI();
-		if (isStatic(uri)) {
+		if (accessControlUtil.isStatic(uri)) {
 			chain.doFilter(request, response);
 			return;
 		}
+		if (FORMAT_LEGACY.equals(logFormat)) {
+			doFilterLegacy(request, response, chain);
+			return;
+		}
+		boolean captureParam = paramTrie.matches(uri, httpReq.getContextPath().length());
+		long startTime = System.currentTimeMillis();
+		long start = System.nanoTime();
+		CountingResponseWrapper wrapper = new CountingResponseWrapper((HttpServletResponse) response);
+		int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+		try {
+			chain.doFilter(request, wrapper);
+			status = wrapper.getStatus();
+		} finally {
+			if (accessLogger.isInfoEnabled()) {
+				StringBuilder sb = new StringBuilder(256);
+				loggingUtil.appendAccessLog(sb, startTime, System.nanoTime() - start, status,
+						wrapper.getByteCount(), captureParam ? paramMaxLength : 0);
+				accessLogger.info(sb.toString());
+			}
+		}
+	}
+
+	/**
+	 * 従来形式のログ出力（リクエスト処理前後にヘッダ・入力情報を全て出力する）
+	 */
+	private void doFilterLegacy(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
 		StringBuffer sb = new StringBuffer("\n[before]");
 		loggingUtil.appendLog(sb);
 		logger.info(sb.toString());
@@ -56,10 +124,6 @@ public class LoggingFilter implements Filter {
 		logger.info(sb.toString());
 	}
 
-	private boolean isStatic(String uri) {
-		return uri.contains("/js/") || uri.contains("/css/") || uri.contains("/fonts/") || uri.contains("/img/");
-	}
-
 	@Override
 	public void destroy() {
 	}
@@ -1,14 +1,25 @@
 package jp.co.sss.lms.filter;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.validation.Validator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+	@Autowired
+	private ControllerMetricsInterceptor controllerMetricsInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		// コントローラーのメソッドごとの処理時間を記録
+		registry.addInterceptor(controllerMetricsInterceptor);
+	}
+
 	@Override
 	public Validator getValidator() {
 		LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
@@ -0,0 +1,27 @@
+package jp.co.sss.lms.form;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * 勤怠一括登録フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class BulkAttendanceForm {
+
+	/** コースID */
+	private Integer courseId;
+	/** 日付（yyyy/M/d形式） */
+	private String trainingDate;
+	/** 日付（表示用） */
+	private String dispTrainingDate;
+	/** 中抜け時間(プルダウン) */
+	private LinkedHashMap<Integer, String> blankTimes;
+	/** 受講生ごとの勤怠フォームリスト */
+	private List<BulkDailyAttendanceForm> attendanceList;
+
+}
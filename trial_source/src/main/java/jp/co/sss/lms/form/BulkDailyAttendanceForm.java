@@ -0,0 +1,28 @@
+package jp.co.sss.lms.form;
+
+import lombok.Data;
+
+/**
+ * 勤怠一括登録 受講生ごとの勤怠フォーム
+ * 
+ * @author 東京ITスクール
+ */
+@Data
+public class BulkDailyAttendanceForm {
+
+	/** LMSユーザーID */
+	private Integer lmsUserId;
+	/** ユーザー名 */
+	private String userName;
+	/** 出勤時間 */
+	private String trainingStartTime;
+	/** 退勤時間 */
+	private String trainingEndTime;
+	/** 中抜け時間 */
+	private Integer blankTime;
+	/** 欠席フラグ */
+	private Boolean absentFlg;
+	/** 備考 */
+	private String note;
+
+}
@@ -14,15 +14,15 @@ import jp.co.sss.lms.entity.LoginUser;
 public interface LoginMapper {
 
 	/**
-	 * ログイン詳細取得（ログインID&パスワード）
+	 * ログイン詳細取得（ログインID）<br>
+	 * パスワードの照合用にハッシュ値も取得する。
 	 * 
 	 * @param loginId
-	 * @param password
 	 * @param deleteFlg
 	 * @return ログイン情報エンティティ
 	 */
-	LoginUser getLoginDetailByLoginIdAndPassword(@Param("loginId") String loginId,
-			@Param("password") String password, @Param("deleteFlg") Short deleteFlg);
+	LoginUser getLoginDetailByLoginId(@Param("loginId") String loginId,
+			@Param("deleteFlg") Short deleteFlg);
 
 	/**
 	 * ログイン詳細取得（LMSユーザID）
@@ -1,10 +1,15 @@
 package jp.co.sss.lms.mapper;
 
 import java.util.Date;
+import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceDeliverablesSectionDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
+import jp.co.sss.lms.dto.SectionServiceFileDto;
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
 
 /**
@@ -16,18 +21,57 @@ import jp.co.sss.lms.dto.SectionServiceSectionDto;
 public interface MSectionMapper {
 
 	/**
-	 * セクションサービスDTO取得
+	 * セクションサービスDTO取得（各リストは含まない）
 	 * 
 	 * @param sectionId
 	 * @param accountId
-	 * @param lmsUserId
 	 * @param deleteFlg
 	 * @return セクションサービスDTO
 	 */
 	SectionServiceSectionDto getSectionDetail(@Param("sectionId") Integer sectionId,
-			@Param("accountId") Integer accountId, @Param("lmsUserId") Integer lmsUserId,
+			@Param("accountId") Integer accountId, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションファイルDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @return セクションファイルDTOリスト
+	 */
+	List<SectionServiceFileDto> getSectionFileDtoList(@Param("sectionId") Integer sectionId);
+
+	/**
+	 * セクションサービス試験DTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス試験DTOリスト
+	 */
+	List<SectionServiceExamDto> getSectionExamDtoList(@Param("sectionId") Integer sectionId,
 			@Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * コースの日報と提出状況の取得
+	 * 
+	 * @param courseId
+	 * @param date
+	 * @param lmsUserId
+	 * @param deleteFlg
+	 * @return セクションサービスレポートDTOリスト
+	 */
+	List<SectionServiceDailyReportDto> getCourseDailyReportDtoList(@Param("courseId") Integer courseId,
+			@Param("date") Date date, @Param("lmsUserId") Integer lmsUserId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * セクションサービス成果物セクションDTOリスト取得
+	 * 
+	 * @param sectionId
+	 * @param deleteFlg
+	 * @return セクションサービス成果物セクションDTOリスト
+	 */
+	List<SectionServiceDeliverablesSectionDto> getSectionDeliverablesDtoList(
+			@Param("sectionId") Integer sectionId, @Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * セクション件数取得
 	 * 
@@ -37,13 +81,11 @@ public interface MSectionMapper {
 	Integer getSectionCount(@Param("sectionId") Integer sectionId);
 
 	/**
-	 * セクション件数取得（コースID）
+	 * セクション日付リスト取得（コースID）
 	 * 
 	 * @param courseId
-	 * @param date
-	 * @return セクション件数
+	 * @return セクションが設定された日付のリスト
 	 */
-	Integer getSectionCountByCourseId(@Param("courseId") Integer courseId,
-			@Param("date") Date date);
+	List<Date> getSectionDateListByCourseId(@Param("courseId") Integer courseId);
 
 }
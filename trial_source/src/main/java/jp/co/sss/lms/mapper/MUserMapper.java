@@ -50,6 +50,14 @@ public interface MUserMapper {
 	 */
 	Boolean updatePassword(MUser mUser);
 
+	/**
+	 * パスワードのハッシュ値更新（再ハッシュ化、パスワード変更日付は更新しない）
+	 * 
+	 * @param mUser
+	 * @return 更新結果
+	 */
+	Boolean updatePasswordHash(MUser mUser);
+
 	/**
 	 * パスワード変更日付更新
 	 * 
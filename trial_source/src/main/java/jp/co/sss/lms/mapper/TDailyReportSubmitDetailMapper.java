@@ -1,5 +1,7 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -38,4 +40,15 @@ public interface TDailyReportSubmitDetailMapper {
 	 */
 	Boolean insert(TDailyReportSubmitDetail tDailyReportSubmitDetail);
 
+	/**
+	 * 日報提出詳細一括置換<br>
+	 * 日報提出IDに紐づく既存の行を削除し、指定された行を一文で登録する。
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tDailyReportSubmitDetailList
+	 * @return 登録件数
+	 */
+	int replaceBulk(@Param("dailyReportSubmitId") Integer dailyReportSubmitId,
+			@Param("tDailyReportSubmitDetailList") List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList);
+
 }
@@ -1,6 +1,10 @@
 package jp.co.sss.lms.mapper;
 
+import java.util.Date;
+import java.util.List;
+
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 import jp.co.sss.lms.entity.TMailQue;
 
@@ -20,4 +24,34 @@ public interface TMailQueMapper {
 	 */
 	Boolean insert(TMailQue tMailQue);
 
+	/**
+	 * 送信対象のメール送信キューを行ロックして取得<br>
+	 * 他のトランザクションがロック中の行は読み飛ばす。
+	 * 
+	 * @param sendStatus
+	 * @param now
+	 * @param limit
+	 * @param deleteFlg
+	 * @return メール送信キューリスト
+	 */
+	List<TMailQue> findSendTargetForUpdate(@Param("sendStatus") Short sendStatus,
+			@Param("now") Date now, @Param("limit") int limit, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * 送信結果の更新
+	 * 
+	 * @param tMailQue
+	 * @return 更新結果
+	 */
+	Boolean updateSendResult(TMailQue tMailQue);
+
+	/**
+	 * 送信状態ごとの件数を取得
+	 * 
+	 * @param sendStatus
+	 * @param deleteFlg
+	 * @return 件数
+	 */
+	int countBySendStatus(@Param("sendStatus") Short sendStatus, @Param("deleteFlg") Short deleteFlg);
+
 }
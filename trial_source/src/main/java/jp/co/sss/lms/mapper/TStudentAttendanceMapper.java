@@ -5,8 +5,10 @@ import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.dto.CourseAttendanceStudentDto;
 import jp.co.sss.lms.entity.TStudentAttendance;
 
 /**
@@ -38,16 +40,30 @@ public interface TStudentAttendanceMapper {
 	TStudentAttendance findByLmsUserIdAndTrainingDate(@Param("lmsUserId") Integer lmsUserId,
 			@Param("trainingDate") Date trainingDate, @Param("deleteFlg") Short deleteFlg);
 
+	/**
+	 * 勤怠情報（受講生入力）取得（LMSユーザーIDリスト＆日付）
+	 * 
+	 * @param lmsUserIdList
+	 * @param trainingDate
+	 * @param deleteFlg
+	 * @return 勤怠情報（受講生入力）エンティティリスト
+	 */
+	List<TStudentAttendance> findByLmsUserIdListAndTrainingDate(
+			@Param("lmsUserIdList") List<Integer> lmsUserIdList,
+			@Param("trainingDate") Date trainingDate, @Param("deleteFlg") Short deleteFlg);
+
 	/**
 	 * 勤怠管理画面用DTOリスト取得
 	 * 
 	 * @param courseId
 	 * @param lmsUserId
 	 * @param deleteFlg
+	 * @param trainingDate 指定した研修日のみ取得する場合に指定（nullの場合はコース全体）
 	 * @return 勤怠管理画面用DTOリスト
 	 */
 	List<AttendanceManagementDto> getAttendanceManagement(@Param("courseId") Integer courseId,
-			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg);
+			@Param("lmsUserId") Integer lmsUserId, @Param("deleteFlg") Short deleteFlg,
+			@Param("trainingDate") Date trainingDate);
 
 	/**
 	 * 勤怠情報（受講生入力）登録
@@ -66,12 +82,66 @@ public interface TStudentAttendanceMapper {
 	Boolean update(TStudentAttendance tStudentAttendance);
 
 	/**
+	 * 勤怠情報（受講生入力）一括登録
+	 * 
+	 * @param tStudentAttendanceList
+	 * @return 登録件数
+	 */
+	int insertBulk(@Param("tStudentAttendanceList") List<TStudentAttendance> tStudentAttendanceList);
+
+	/**
+	 * 勤怠情報（受講生入力）一括更新
+	 * 
+	 * @param tStudentAttendanceList
+	 * @return 更新件数
+	 */
+	int updateBulk(@Param("tStudentAttendanceList") List<TStudentAttendance> tStudentAttendanceList);
+
+	/**
+	 * 勤怠未入力日リスト取得（欠席以外で出勤時刻または退勤時刻が未入力）
+	 * 
 	 * @author VU HONG DUC_Task25
 	 * @param lmsUserId
 	 * @param deleteFlg
-	 * @param trainingDate
-	 * @return 勤怠未入力点数
+	 * @return 勤怠未入力の研修日リスト
+	 */
+	List<Date> getNotEnteredTrainingDateList(@Param("lmsUserId") Integer lmsUserId,
+			@Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * コース受講生件数取得
+	 * 
+	 * @param courseId
+	 * @param companyId 企業で絞り込む場合に指定
+	 * @param role
+	 * @param deleteFlg
+	 * @return 受講生件数
+	 */
+	int countCourseStudent(@Param("courseId") Integer courseId, @Param("companyId") Integer companyId,
+			@Param("role") String role, @Param("deleteFlg") Short deleteFlg);
+
+	/**
+	 * コース受講生リスト取得（LMSユーザーID順）
+	 * 
+	 * @param courseId
+	 * @param companyId 企業で絞り込む場合に指定
+	 * @param role
+	 * @param deleteFlg
+	 * @param offset
+	 * @param limit
+	 * @return コース勤怠一覧 受講生ごとの勤怠DTOリスト（ユーザー情報のみ）
+	 */
+	List<CourseAttendanceStudentDto> getCourseStudentList(@Param("courseId") Integer courseId,
+			@Param("companyId") Integer companyId, @Param("role") String role,
+			@Param("deleteFlg") Short deleteFlg, @Param("offset") int offset, @Param("limit") int limit);
+
+	/**
+	 * 受講生の勤怠情報（受講生入力）を1件ずつ取得
+	 * 
+	 * @param lmsUserIdList
+	 * @param deleteFlg
+	 * @param resultHandler
 	 */
-	Integer countByNullTrainingStartTimeOrTrainingEndTime(@Param("lmsUserId") Integer lmsUserId,
-			@Param("deleteFlg") Short deleteFlg, @Param("trainingDate") Date trainingDate);
+	void getCourseAttendance(@Param("lmsUserIdList") List<Integer> lmsUserIdList,
+			@Param("deleteFlg") Short deleteFlg, ResultHandler<TStudentAttendance> resultHandler);
 }
@@ -0,0 +1,488 @@
+package jp.co.sss.lms.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import jp.co.sss.lms.dto.CourseAttendanceStudentDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.form.BulkAttendanceForm;
+import jp.co.sss.lms.form.BulkDailyAttendanceForm;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceManagementCache;
+import jp.co.sss.lms.util.AttendanceNotEnteredCache;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.TrainingTime;
+
+/**
+ * 勤怠情報（一括登録）サービス<br>
+ * 講師がコースの受講生の1日分の勤怠情報を、画面またはCSVからまとめて登録する。
+ * 入力は1回の走査で検証し、エラーのある行は登録せずにメッセージを返却して残りの行を登録する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class BulkAttendanceService {
+
+	/** 備考の最大文字数 */
+	private static final int NOTE_MAX_LENGTH = 100;
+	/** CSVの列数（LMSユーザーID,出勤時刻,退勤時刻,中抜け時間（分）,欠席,備考） */
+	private static final int CSV_COLUMN_COUNT = 6;
+	/** CSVの欠席を示す値 */
+	private static final String CSV_ABSENT = "1";
+	/** CSVの囲み文字 */
+	private static final char CSV_QUOTE = '"';
+	/** CSVの区切り文字 */
+	private static final char CSV_SEPARATOR = ',';
+
+	@Autowired
+	private DateUtil dateUtil;
+	@Autowired
+	private AttendanceUtil attendanceUtil;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private LoginUserDto loginUserDto;
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private AttendanceNotEnteredCache attendanceNotEnteredCache;
+	@Autowired
+	private AttendanceManagementCache attendanceManagementCache;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * 勤怠一括登録フォームの取得
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @return 勤怠一括登録フォーム（登録済みの勤怠情報を設定）
+	 */
+	public BulkAttendanceForm getBulkAttendanceForm(Integer courseId, Date trainingDate) {
+
+		BulkAttendanceForm bulkAttendanceForm = new BulkAttendanceForm();
+		bulkAttendanceForm.setCourseId(courseId);
+		bulkAttendanceForm.setTrainingDate(dateUtil.toString(trainingDate));
+		bulkAttendanceForm.setDispTrainingDate(dateUtil.dateToString(trainingDate, "yyyy年M月d日(E)"));
+		bulkAttendanceForm.setBlankTimes(attendanceUtil.setBlankTime());
+		bulkAttendanceForm.setAttendanceList(new ArrayList<BulkDailyAttendanceForm>());
+
+		Map<Integer, CourseAttendanceStudentDto> studentMap = getStudentMap(courseId);
+		Map<Integer, TStudentAttendance> currentMap = getCurrentMap(
+				new ArrayList<>(studentMap.keySet()), trainingDate);
+		for (CourseAttendanceStudentDto student : studentMap.values()) {
+			BulkDailyAttendanceForm dailyForm = new BulkDailyAttendanceForm();
+			dailyForm.setLmsUserId(student.getLmsUserId());
+			dailyForm.setUserName(student.getUserName());
+			TStudentAttendance current = currentMap.get(student.getLmsUserId());
+			if (current != null) {
+				dailyForm.setTrainingStartTime(current.getTrainingStartTime());
+				dailyForm.setTrainingEndTime(current.getTrainingEndTime());
+				dailyForm.setBlankTime(current.getBlankTime());
+				dailyForm.setAbsentFlg(AttendanceStatusEnum.ABSENT.code.equals(current.getStatus()));
+				dailyForm.setNote(current.getNote());
+			}
+			bulkAttendanceForm.getAttendanceList().add(dailyForm);
+		}
+		return bulkAttendanceForm;
+	}
+
+	/**
+	 * 画面入力の一括登録
+	 *
+	 * @param bulkAttendanceForm
+	 * @param trainingDate       入力チェック済みの日付
+	 * @param errorList          行ごとのエラーメッセージの格納先
+	 * @return 登録・更新件数
+	 */
+	@Transactional
+	public int regist(BulkAttendanceForm bulkAttendanceForm, Date trainingDate,
+			List<String> errorList) {
+		List<BulkDailyAttendanceForm> rowList = bulkAttendanceForm.getAttendanceList() == null
+				? new ArrayList<>()
+				: bulkAttendanceForm.getAttendanceList();
+		List<String> labelList = new ArrayList<>(rowList.size());
+		for (BulkDailyAttendanceForm row : rowList) {
+			labelList.add(row.getUserName());
+		}
+		return regist(bulkAttendanceForm.getCourseId(), trainingDate, rowList, labelList,
+				errorList);
+	}
+
+	/**
+	 * CSVの一括登録<br>
+	 * 1行目は見出しとして読み飛ばす。列はLMSユーザーID,出勤時刻,退勤時刻,中抜け時間（分）,欠席（1の場合欠席）,備考の順。
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @param csvFile
+	 * @param errorList    行ごとのエラーメッセージの格納先
+	 * @return 登録・更新件数
+	 */
+	@Transactional
+	public int registCsv(Integer courseId, Date trainingDate, MultipartFile csvFile,
+			List<String> errorList) {
+		List<BulkDailyAttendanceForm> rowList = new ArrayList<>();
+		List<String> labelList = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(csvFile.getInputStream(), StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			int lineNo = 1;
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				if (line.isBlank()) {
+					continue;
+				}
+				BulkDailyAttendanceForm row = parseCsvLine(line);
+				if (row == null) {
+					errorList.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_CSVUPLOAD_INVALID,
+							new String[] { String.valueOf(lineNo) }));
+					continue;
+				}
+				rowList.add(row);
+				labelList.add(lineNo + "行目");
+			}
+		} catch (IOException e) {
+			logger.warn("勤怠一括登録CSVを読み込めません", e);
+			errorList.add(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_CSVUPLOAD_FILEFORMAT));
+			return 0;
+		}
+		return regist(courseId, trainingDate, rowList, labelList, errorList);
+	}
+
+	/**
+	 * 一括登録<br>
+	 * 全行を1回の走査で検証・エンティティ化し、未登録の受講生は一括登録、登録済みの受講生は一括更新する。
+	 * 未入力の行は登録済みの勤怠情報を変更しない。
+	 *
+	 * @param courseId
+	 * @param trainingDate
+	 * @param rowList
+	 * @param labelList    エラーメッセージで行を示す名称
+	 * @param errorList
+	 * @return 登録・更新件数
+	 */
+	private int regist(Integer courseId, Date trainingDate, List<BulkDailyAttendanceForm> rowList,
+			List<String> labelList, List<String> errorList) {
+
+		// 研修日チェック（日付全体のエラー）
+		if (!attendanceUtil.isWorkDay(courseId, trainingDate)) {
+			errorList.add(messageUtil.getMessage(Constants.VALID_KEY_INVALID, new String[] { "日付" }));
+			return 0;
+		}
+
+		Map<Integer, CourseAttendanceStudentDto> studentMap = getStudentMap(courseId);
+		Set<Integer> registeredSet = new HashSet<>();
+		List<TStudentAttendance> validList = new ArrayList<>(rowList.size());
+		for (int i = 0; i < rowList.size(); i++) {
+			BulkDailyAttendanceForm row = rowList.get(i);
+			String label = labelList.get(i);
+			if (row.getLmsUserId() == null || !studentMap.containsKey(row.getLmsUserId())
+					|| !registeredSet.add(row.getLmsUserId())) {
+				errorList.add(messageUtil.getMessage(Constants.VALID_KEY_INVALID,
+						new String[] { label + "のLMSユーザーID" }));
+				continue;
+			}
+			String error = validate(row, label);
+			if (error != null) {
+				errorList.add(error);
+				continue;
+			}
+			if (isEmptyRow(row)) {
+				continue;
+			}
+			validList.add(toEntity(row, trainingDate));
+		}
+		if (validList.isEmpty()) {
+			return 0;
+		}
+
+		// 登録済みの勤怠情報と突き合わせて登録用・更新用に振り分け
+		List<Integer> lmsUserIdList = new ArrayList<>(validList.size());
+		for (TStudentAttendance tStudentAttendance : validList) {
+			lmsUserIdList.add(tStudentAttendance.getLmsUserId());
+		}
+		Map<Integer, TStudentAttendance> currentMap = getCurrentMap(lmsUserIdList, trainingDate);
+		Date date = new Date();
+		List<TStudentAttendance> insertList = new ArrayList<>();
+		List<TStudentAttendance> updateList = new ArrayList<>();
+		for (TStudentAttendance tStudentAttendance : validList) {
+			tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
+			tStudentAttendance.setLastModifiedDate(date);
+			TStudentAttendance current = currentMap.get(tStudentAttendance.getLmsUserId());
+			if (current == null) {
+				tStudentAttendance.setAccountId(loginUserDto.getAccountId());
+				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
+				tStudentAttendance.setFirstCreateDate(date);
+				insertList.add(tStudentAttendance);
+			} else {
+				tStudentAttendance.setStudentAttendanceId(current.getStudentAttendanceId());
+				updateList.add(tStudentAttendance);
+			}
+		}
+
+		// 一括登録・更新処理
+		int count = 0;
+		if (!insertList.isEmpty()) {
+			count += tStudentAttendanceMapper.insertBulk(insertList);
+		}
+		if (!updateList.isEmpty()) {
+			count += tStudentAttendanceMapper.updateBulk(updateList);
+		}
+		for (TStudentAttendance tStudentAttendance : validList) {
+			attendanceNotEnteredCache.apply(tStudentAttendance.getLmsUserId(),
+					List.of(tStudentAttendance));
+			attendanceManagementCache.evict(tStudentAttendance.getLmsUserId());
+		}
+		logger.info("勤怠情報一括登録・更新件数：" + count + "件（コースID：" + courseId + "、エラー："
+				+ errorList.size() + "件）");
+		return count;
+	}
+
+	/**
+	 * 1行分の入力チェック
+	 *
+	 * @param row
+	 * @param label エラーメッセージで行を示す名称
+	 * @return エラーメッセージ（エラーがない場合null）
+	 */
+	private String validate(BulkDailyAttendanceForm row, String label) {
+		String startTime = row.getTrainingStartTime();
+		String endTime = row.getTrainingEndTime();
+		boolean hasStart = startTime != null && !startTime.isBlank();
+		boolean hasEnd = endTime != null && !endTime.isBlank();
+		if ((hasStart && !TrainingTime.isValid(startTime))
+				|| (hasEnd && !TrainingTime.isValid(endTime))) {
+			return messageUtil.getMessage(Constants.VALID_KEY_TRAININGTIMEBULK, new String[] { label });
+		}
+		if (Boolean.TRUE.equals(row.getAbsentFlg()) && (hasStart || hasEnd)) {
+			return messageUtil.getMessage(Constants.VALID_KEY_ABSENTANDTRAININGTIMEEXISTSBULK,
+					new String[] { label });
+		}
+		if (!hasStart && hasEnd) {
+			return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTYBULK,
+					new String[] { label });
+		}
+		if (hasStart && hasEnd) {
+			TrainingTime trainingStartTime = TrainingTime.parse(startTime);
+			TrainingTime trainingEndTime = TrainingTime.parse(endTime);
+			if (trainingStartTime.compareTo(trainingEndTime) > 0) {
+				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGEBULK,
+						new String[] { label });
+			}
+			if (row.getBlankTime() != null) {
+				int workMinute = trainingEndTime.toMinutes() - trainingStartTime.toMinutes();
+				if (row.getBlankTime() < 0 || row.getBlankTime() > workMinute) {
+					return label + "："
+							+ messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BLANKTIMEERROR);
+				}
+			}
+		}
+		if (row.getNote() != null && row.getNote().length() > NOTE_MAX_LENGTH) {
+			return messageUtil.getMessage(Constants.VALID_KEY_MAXVALBULK,
+					new String[] { label, "備考", String.valueOf(NOTE_MAX_LENGTH) });
+		}
+		return null;
+	}
+
+	/**
+	 * 未入力の行か判定
+	 *
+	 * @param row
+	 * @return 時刻・中抜け時間・欠席・備考のいずれも入力されていない場合true
+	 */
+	private boolean isEmptyRow(BulkDailyAttendanceForm row) {
+		return (row.getTrainingStartTime() == null || row.getTrainingStartTime().isBlank())
+				&& (row.getTrainingEndTime() == null || row.getTrainingEndTime().isBlank())
+				&& row.getBlankTime() == null && !Boolean.TRUE.equals(row.getAbsentFlg())
+				&& (row.getNote() == null || row.getNote().isEmpty());
+	}
+
+	/**
+	 * 入力チェック済みの行から勤怠情報エンティティを作成
+	 *
+	 * @param row
+	 * @param trainingDate
+	 * @return 勤怠情報（受講生入力）エンティティ
+	 */
+	private TStudentAttendance toEntity(BulkDailyAttendanceForm row, Date trainingDate) {
+		TrainingTime trainingStartTime = TrainingTime.parse(trimToEmpty(row.getTrainingStartTime()));
+		TrainingTime trainingEndTime = TrainingTime.parse(trimToEmpty(row.getTrainingEndTime()));
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(row.getLmsUserId());
+		tStudentAttendance.setTrainingDate(trainingDate);
+		tStudentAttendance.setTrainingStartTime(trainingStartTime.getFormattedString());
+		tStudentAttendance.setTrainingEndTime(trainingEndTime.getFormattedString());
+		tStudentAttendance.setBlankTime(row.getBlankTime());
+		if (Boolean.TRUE.equals(row.getAbsentFlg())) {
+			tStudentAttendance.setStatus(AttendanceStatusEnum.ABSENT.code);
+		} else {
+			tStudentAttendance.setStatus(
+					attendanceUtil.getStatus(trainingStartTime, trainingEndTime).code);
+		}
+		tStudentAttendance.setNote(row.getNote() == null ? "" : row.getNote());
+		tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
+		return tStudentAttendance;
+	}
+
+	/**
+	 * CSV1行の読込
+	 *
+	 * @param line
+	 * @return 受講生ごとの勤怠フォーム（形式が不正な場合null）
+	 */
+	private BulkDailyAttendanceForm parseCsvLine(String line) {
+		String[] columns = splitCsvLine(line, CSV_COLUMN_COUNT);
+		if (columns == null) {
+			return null;
+		}
+		BulkDailyAttendanceForm row = new BulkDailyAttendanceForm();
+		try {
+			row.setLmsUserId(Integer.valueOf(columns[0].trim()));
+			String blankTime = columns[3].trim();
+			row.setBlankTime(blankTime.isEmpty() ? null : Integer.valueOf(blankTime));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		row.setTrainingStartTime(columns[1].trim());
+		row.setTrainingEndTime(columns[2].trim());
+		row.setAbsentFlg(CSV_ABSENT.equals(columns[4].trim()));
+		row.setNote(columns[5]);
+		return row;
+	}
+
+	/**
+	 * CSV1行の列分割<br>
+	 * ダブルクォートで囲んだ列はカンマを含むことができ、""はダブルクォート1文字とする。
+	 * 最終列（備考）が囲まれていない場合は、行末までを最終列とする。
+	 *
+	 * @param line
+	 * @param columnCount 列数
+	 * @return 列の値（列数が不足する場合、または囲みが不正な場合null）
+	 */
+	private String[] splitCsvLine(String line, int columnCount) {
+		String[] columns = new String[columnCount];
+		int length = line.length();
+		int pos = 0;
+		for (int column = 0; column < columnCount; column++) {
+			boolean last = column == columnCount - 1;
+			if (pos < length && line.charAt(pos) == CSV_QUOTE) {
+				StringBuilder sb = new StringBuilder();
+				pos++;
+				while (true) {
+					if (pos >= length) {
+						// 閉じていない囲み
+						return null;
+					}
+					char c = line.charAt(pos++);
+					if (c != CSV_QUOTE) {
+						sb.append(c);
+					} else if (pos < length && line.charAt(pos) == CSV_QUOTE) {
+						sb.append(CSV_QUOTE);
+						pos++;
+					} else {
+						break;
+					}
+				}
+				columns[column] = sb.toString();
+				if (pos < length && line.charAt(pos) != CSV_SEPARATOR) {
+					return null;
+				}
+			} else if (last) {
+				columns[column] = line.substring(pos);
+				pos = length;
+			} else {
+				int end = line.indexOf(CSV_SEPARATOR, pos);
+				if (end < 0) {
+					end = length;
+				}
+				columns[column] = line.substring(pos, end);
+				pos = end;
+			}
+			if (last) {
+				return pos >= length ? columns : null;
+			}
+			if (pos >= length) {
+				return null;
+			}
+			// 区切り文字を読み飛ばす
+			pos++;
+		}
+		return columns;
+	}
+
+	/**
+	 * 前後の空白を除去（nullの場合は空文字）
+	 *
+	 * @param str
+	 * @return 前後の空白を除去した文字列
+	 */
+	private String trimToEmpty(String str) {
+		return str == null ? "" : str.trim();
+	}
+
+	/**
+	 * コースの受講生（LMSユーザーID順）
+	 *
+	 * @param courseId
+	 * @return LMSユーザーIDと受講生
+	 */
+	private Map<Integer, CourseAttendanceStudentDto> getStudentMap(Integer courseId) {
+		int studentCount = tStudentAttendanceMapper.countCourseStudent(courseId, null,
+				Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE);
+		Map<Integer, CourseAttendanceStudentDto> studentMap = new LinkedHashMap<>();
+		if (studentCount == 0) {
+			return studentMap;
+		}
+		for (CourseAttendanceStudentDto student : tStudentAttendanceMapper.getCourseStudentList(
+				courseId, null, Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE, 0,
+				studentCount)) {
+			studentMap.put(student.getLmsUserId(), student);
+		}
+		return studentMap;
+	}
+
+	/**
+	 * 登録済みの勤怠情報
+	 *
+	 * @param lmsUserIdList
+	 * @param trainingDate
+	 * @return LMSユーザーIDと勤怠情報
+	 */
+	private Map<Integer, TStudentAttendance> getCurrentMap(List<Integer> lmsUserIdList,
+			Date trainingDate) {
+		Map<Integer, TStudentAttendance> currentMap = new HashMap<>();
+		if (lmsUserIdList.isEmpty()) {
+			return currentMap;
+		}
+		for (TStudentAttendance entity : tStudentAttendanceMapper
+				.findByLmsUserIdListAndTrainingDate(lmsUserIdList, trainingDate,
+						Constants.DB_FLG_FALSE)) {
+			currentMap.put(entity.getLmsUserId(), entity);
+		}
+		return currentMap;
+	}
+
+}
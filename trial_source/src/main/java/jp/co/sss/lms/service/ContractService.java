@@ -2,8 +2,10 @@ package jp.co.sss.lms.service;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.AgreementConsentDto;
@@ -24,6 +26,28 @@ public class ContractService {
 	@Autowired
 	private LoginUserDto loginUserDto;
 
+	/** 未同意契約有無のキャッシュ保持時間（分） */
+	@Value("${setting.contract.consent.cache.minute:10}")
+	private long consentCacheMinute;
+
+	/** 未同意契約有無のキャッシュ（企業ID単位） */
+	private final ConcurrentHashMap<Integer, DisagreementState> disagreementCache = new ConcurrentHashMap<>();
+
+	/**
+	 * 未同意契約有無の状態
+	 */
+	private static final class DisagreementState {
+		/** 未同意の契約が存在するか */
+		private final boolean exists;
+		/** 有効期限（エポックミリ秒） */
+		private final long expireTime;
+
+		private DisagreementState(boolean exists, long expireTime) {
+			this.exists = exists;
+			this.expireTime = expireTime;
+		}
+	}
+
 	/**
 	 * 契約同意DTOリストの取得
 	 * 
@@ -45,4 +69,45 @@ public class ContractService {
 				today, Constants.CODE_VAL_CONTRACT_DISAGREE, Constants.DB_FLG_FALSE);
 	}
 
+	/**
+	 * 未同意の契約有無の判定<br>
+	 * 企業ID単位でキャッシュし、最も早く終了する未同意契約の終了日時または保持時間の経過で再取得する。
+	 * 
+	 * @return 未同意の契約が存在する場合true
+	 */
+	public boolean hasDisagreementConsent() {
+		Integer companyId = loginUserDto.getCompanyId();
+		if (companyId == null) {
+			return !getDisagreementConsentDtoList().isEmpty();
+		}
+		long now = System.currentTimeMillis();
+		DisagreementState state = disagreementCache.get(companyId);
+		if (state == null || state.expireTime <= now) {
+			List<AgreementConsentDto> agreementConsentDtoList = getDisagreementConsentDtoList();
+			long expireTime = now + consentCacheMinute * 60 * 1000;
+			for (AgreementConsentDto agreementConsentDto : agreementConsentDtoList) {
+				// 契約終了日時を過ぎると未同意一覧から外れるため、その時点で再取得する
+				if (agreementConsentDto.getContractEndDate() != null) {
+					expireTime = Math.min(expireTime,
+							agreementConsentDto.getContractEndDate().getTime());
+				}
+			}
+			state = new DisagreementState(!agreementConsentDtoList.isEmpty(), expireTime);
+			disagreementCache.put(companyId, state);
+		}
+		return state.exists;
+	}
+
+	/**
+	 * 未同意契約有無のキャッシュ破棄<br>
+	 * 契約同意の登録完了時に呼び出す。
+	 * 
+	 * @param companyId
+	 */
+	public void clearDisagreementConsent(Integer companyId) {
+		if (companyId != null) {
+			disagreementCache.remove(companyId);
+		}
+	}
+
 }
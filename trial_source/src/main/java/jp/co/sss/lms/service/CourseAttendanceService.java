@@ -0,0 +1,139 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jp.co.sss.lms.dto.CourseAttendanceDto;
+import jp.co.sss.lms.dto.CourseAttendanceStudentDto;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseAttendanceAggregator;
+import jp.co.sss.lms.util.CourseCache;
+
+/**
+ * 勤怠情報（コース）サービス<br>
+ * 講師・企業担当者向けに、コースの受講生×研修日の勤怠一覧を受講生単位のページで取得する。
+ * 1ページ分の勤怠情報は1回の検索で1件ずつ読み込みながら集計する。
+ *
+ * @author 東京ITスクール
+ */
+@Service
+public class CourseAttendanceService {
+
+	/** 未入力の表示名 */
+	private static final String NOT_ENTERED_DISP_NAME = "未入力";
+	/** 出席（遅刻早退なし）の表示名 */
+	private static final String ATTEND_DISP_NAME = "出席";
+
+	@Autowired
+	private CourseCache courseCache;
+	@Autowired
+	private AttendanceUtil attendanceUtil;
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+
+	/** 1ページの受講生数 */
+	@Value("${setting.attendance.list.page.size:50}")
+	private int pageSize;
+
+	/**
+	 * コース勤怠一覧の取得<br>
+	 * 勤怠情報をカーソルで読み込むため、読取専用トランザクション内で実行する。
+	 *
+	 * @param courseId
+	 * @param companyId 企業担当者の場合は所属企業ID（それ以外はnull）
+	 * @param page      ページ番号（1始まり、範囲外の場合は補正する）
+	 * @return コース勤怠一覧DTO
+	 */
+	@Transactional(readOnly = true)
+	public CourseAttendanceDto getCourseAttendance(Integer courseId, Integer companyId, int page) {
+
+		CourseAttendanceDto courseAttendanceDto = new CourseAttendanceDto();
+		courseAttendanceDto.setCourseId(courseId);
+
+		// 研修日（セクション日付）
+		long[] trainingDates = courseCache.getSectionDates(courseId);
+		List<Date> trainingDateList = new ArrayList<>(trainingDates.length);
+		for (long trainingDate : trainingDates) {
+			trainingDateList.add(new Date(trainingDate));
+		}
+		courseAttendanceDto.setTrainingDateList(trainingDateList);
+
+		// ページ
+		int studentCount = tStudentAttendanceMapper.countCourseStudent(courseId, companyId,
+				Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE);
+		int pageCount = Math.max(1, (studentCount + pageSize - 1) / pageSize);
+		page = Math.min(Math.max(page, 1), pageCount);
+		courseAttendanceDto.setStudentCount(studentCount);
+		courseAttendanceDto.setPageCount(pageCount);
+		courseAttendanceDto.setPage(page);
+
+		// ページ内の受講生（LMSユーザーID順）
+		List<CourseAttendanceStudentDto> studentList = tStudentAttendanceMapper.getCourseStudentList(
+				courseId, companyId, Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE,
+				(page - 1) * pageSize, pageSize);
+		courseAttendanceDto.setStudentList(studentList);
+		if (studentList.isEmpty()) {
+			return courseAttendanceDto;
+		}
+		int[] lmsUserIds = new int[studentList.size()];
+		List<Integer> lmsUserIdList = new ArrayList<>(studentList.size());
+		for (int i = 0; i < lmsUserIds.length; i++) {
+			lmsUserIds[i] = studentList.get(i).getLmsUserId();
+			lmsUserIdList.add(lmsUserIds[i]);
+		}
+
+		// 勤怠情報の集計
+		CourseAttendanceAggregator aggregator = new CourseAttendanceAggregator(lmsUserIds,
+				trainingDates);
+		tStudentAttendanceMapper.getCourseAttendance(lmsUserIdList, Constants.DB_FLG_FALSE,
+				aggregator);
+
+		for (int student = 0; student < lmsUserIds.length; student++) {
+			CourseAttendanceStudentDto dto = studentList.get(student);
+			List<String> statusDispNameList = new ArrayList<>(trainingDates.length);
+			for (int day = 0; day < trainingDates.length; day++) {
+				statusDispNameList.add(getStatusDispName(aggregator.getStatus(student, day)));
+			}
+			dto.setStatusDispNameList(statusDispNameList);
+			dto.setTardyCount(aggregator.getTardyCount(student));
+			dto.setLeavingEarlyCount(aggregator.getLeavingEarlyCount(student));
+			dto.setAbsentCount(aggregator.getAbsentCount(student));
+			dto.setNotEnteredCount(aggregator.getNotEnteredCount(student));
+			dto.setBlankTimeValue(
+					String.valueOf(attendanceUtil.calcBlankTime(aggregator.getBlankTimeTotal(student))));
+		}
+
+		return courseAttendanceDto;
+	}
+
+	/**
+	 * ステータス表示名の取得
+	 *
+	 * @param status 集計したステータス
+	 * @return 表示名
+	 */
+	private String getStatusDispName(byte status) {
+		switch (status) {
+		case CourseAttendanceAggregator.STATUS_NO_RECORD:
+			return "";
+		case CourseAttendanceAggregator.STATUS_NOT_ENTERED:
+			return NOT_ENTERED_DISP_NAME;
+		default:
+			AttendanceStatusEnum statusEnum = AttendanceStatusEnum.getEnum((short) status);
+			if (statusEnum == null || statusEnum == AttendanceStatusEnum.NONE) {
+				return ATTEND_DISP_NAME;
+			}
+			return statusEnum.name;
+		}
+	}
+
+}
@@ -8,8 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.CourseServiceCourseDto;
-import jp.co.sss.lms.mapper.MCourseMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.CourseCache;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
 
@@ -22,7 +22,7 @@ import jp.co.sss.lms.util.MessageUtil;
 public class CourseService {
 
 	@Autowired
-	private MCourseMapper mCourseMapper;
+	private CourseCache courseCache;
 	@Autowired
 	private MessageUtil messageUtil;
 	@Autowired
@@ -37,8 +37,7 @@ public class CourseService {
 	 * @return エラーメッセージ
 	 */
 	public String checkCourseId(Integer courseId) {
-		Integer courseCount = mCourseMapper.getCourseCount(courseId);
-		if (courseCount == 0) {
+		if (!courseCache.exists(courseId)) {
 			String message = messageUtil.getMessage(Constants.VALID_KEY_ALREADYDELETE,
 					new String[] { "コースID " + courseId });
 			StringBuffer sb = new StringBuffer(message);
@@ -58,8 +57,7 @@ public class CourseService {
 	 */
 	public CourseServiceCourseDto getCourseDetail(Integer courseId) throws ParseException {
 
-		CourseServiceCourseDto courseServiceCourseDto = mCourseMapper.getCourseDetail(courseId,
-				Constants.DB_FLG_FALSE);
+		CourseServiceCourseDto courseServiceCourseDto = courseCache.getCourseDetail(courseId);
 
 		return courseServiceCourseDto;
 
@@ -1,5 +1,6 @@
 package jp.co.sss.lms.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
@@ -7,6 +8,7 @@ import java.util.List;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.co.sss.lms.dto.ExamDetailDto;
 import jp.co.sss.lms.dto.ExamQuestionDto;
@@ -125,6 +127,7 @@ public class ExamService {
 	 * @param examQuestionForm
 	 * @return examResultId
 	 */
+	@Transactional
 	public Integer insert(ExamQuestionForm examQuestionForm) {
 
 		// 試験IDに紐づく試験問題リストを取得
@@ -171,6 +174,7 @@ public class ExamService {
 		tExamResultMapper.insert(tExamResult);
 
 		// 試験結果詳細登録
+		List<TExamResultDetail> tExamResultDetailList = new ArrayList<>(mQuestionList.size());
 		for (int j = 0; j < mQuestionList.size(); j++) {
 			// 試験結果詳細を生成
 			TExamResultDetail tExamResultDetail = new TExamResultDetail();
@@ -190,8 +194,11 @@ public class ExamService {
 			tExamResultDetail.setFirstCreateDate(now);
 			tExamResultDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tExamResultDetail.setLastModifiedDate(now);
-			// 試験結果詳細へ登録
-			tExamResultDetailMapper.insert(tExamResultDetail);
+			tExamResultDetailList.add(tExamResultDetail);
+		}
+		// 試験結果詳細へ一括登録
+		if (!tExamResultDetailList.isEmpty()) {
+			tExamResultDetailMapper.insertBulk(tExamResultDetailList);
 		}
 
 		return tExamResult.getExamResultId();
@@ -1,22 +1,25 @@
 package jp.co.sss.lms.service;
 
-import java.util.Calendar;
+import java.util.Date;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.LoginUser;
+import jp.co.sss.lms.entity.MUser;
 import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginAttemptTracker;
+import jp.co.sss.lms.util.LoginUserCache;
 import jp.co.sss.lms.util.MessageUtil;
-import jp.co.sss.lms.util.PasswordUtil;
+import jp.co.sss.lms.util.PasswordHashUtil;
 
 /**
  * ログイン情報サービス
@@ -37,14 +40,15 @@ public class LoginService {
 	@Autowired
 	private HttpSession session;
 	@Autowired
+	private HttpServletRequest request;
+	@Autowired
 	private MUserMapper mUserMapper;
 	@Autowired
-	private PasswordUtil passwordUtil;
-
-	@Value("${setting.lock.minute}")
-	private Integer lockMinute;
-	@Value("${setting.lock.count}")
-	private Integer lockCount;
+	private PasswordHashUtil passwordHashUtil;
+	@Autowired
+	private LoginAttemptTracker loginAttemptTracker;
+	@Autowired
+	private LoginUserCache loginUserCache;
 
 	/**
 	 * ログイン処理
@@ -53,22 +57,17 @@ public class LoginService {
 	 */
 	public String getLoginInfo(String loginId, String password) {
 
-		// salt + ストレッチングしたパスワードを取得
-		String saltPassword = passwordUtil.getSaltedAndStrechedPassword(password, loginId);
-
-		// アカウントロックチェック
-		if (!checkLockTime()) {
+		// アカウントロックチェック（パスワード照合・DB参照より前に判定する）
+		if (!checkLockTime(loginId)) {
 			return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
 		}
 		// ログイン情報を取得
-		LoginUser loginUser = loginMapper.getLoginDetailByLoginIdAndPassword(loginId, saltPassword,
-				Constants.DB_FLG_FALSE);
+		LoginUser loginUser = loginMapper.getLoginDetailByLoginId(loginId, Constants.DB_FLG_FALSE);
 
-		// ログイン情報を取得できなかった場合
-		if (loginUser == null) {
-			loginUserDto.setPasswordNgCount(loginUserDto.getPasswordNgCount() == null ? 1
-					: loginUserDto.getPasswordNgCount() + 1);
-			if (!checkLockCount()) {
+		// ログイン情報を取得できなかった場合（パスワード不一致を含む）
+		if (!passwordHashUtil.matches(password, loginId,
+				loginUser == null ? null : loginUser.getPassword())) {
+			if (!checkLockCount(loginId)) {
 				return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
 			} else {
 				return messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
@@ -77,15 +76,37 @@ public class LoginService {
 		} else if (!checkPlaceDisplay(loginUser.getRole(), loginUser.getHiddenFlg())) {
 			return messageUtil.getMessage(Constants.VALID_KEY_LOGIN_PLACENODISPLAY);
 		} else {
+			// 現在のハッシュ方式で再ハッシュ化
+			rehashPassword(loginUser, loginId, password);
+			loginAttemptTracker.reset(loginId, request.getRemoteAddr());
 			// ログイン情報をセッションに格納
 			BeanUtils.copyProperties(loginUser, loginUserDto);
-			loginUserDto.setPasswordNgCount(0);
-			loginUserDto.setPasswordNgDate("");
+			loginUserDto.setPasswordExpireTime(
+					dateUtil.getPasswordExpireTime(loginUser.getPasswordChangeDate()));
 			session.setAttribute("loginUserDto", loginUserDto);
 			return "";
 		}
 	}
 
+	/**
+	 * 保存されているハッシュ値が現在の方式・コストでなければ再ハッシュ化して更新
+	 * 
+	 * @param loginUser
+	 * @param loginId
+	 * @param password
+	 */
+	private void rehashPassword(LoginUser loginUser, String loginId, String password) {
+		if (passwordHashUtil.needsRehash(loginUser.getPassword())) {
+			MUser mUser = new MUser();
+			mUser.setUserId(loginUser.getUserId());
+			mUser.setPassword(passwordHashUtil.encode(password, loginId));
+			mUser.setLastModifiedUser(loginUser.getUserId());
+			mUser.setLastModifiedDate(new Date());
+			mUserMapper.updatePasswordHash(mUser);
+		}
+		loginUser.setPassword(null);
+	}
+
 	/**
 	 * ログインしてログインIDを取得
 	 * 
@@ -94,14 +115,14 @@ public class LoginService {
 	 */
 	public String getLoginId(Integer userId) {
 		// ログイン情報を取得
-		LoginUser loginUser = loginMapper.getLoginDetailByUserId(userId, Constants.DB_FLG_FALSE);
+		LoginUser loginUser = loginUserCache.getByUserId(userId);
 		if (loginUser == null) {
 			return "";
 		}
 		// セッションに格納
 		BeanUtils.copyProperties(loginUser, loginUserDto);
-		loginUserDto.setPasswordNgCount(0);
-		loginUserDto.setPasswordNgDate("");
+		loginUserDto.setPasswordExpireTime(
+				dateUtil.getPasswordExpireTime(loginUser.getPasswordChangeDate()));
 		session.setAttribute("loginUserDto", loginUserDto);
 		// ログインIDを返す
 		String loginId = mUserMapper.getLoginId(userId, Constants.DB_FLG_FALSE);
@@ -111,36 +132,21 @@ public class LoginService {
 	/**
 	 * アカウントロックチェック
 	 * 
-	 * @return boolean
+	 * @param loginId
+	 * @return 判定結果（ロック中の場合false）
 	 */
-	private boolean checkLockTime() {
-		if (loginUserDto.getPasswordNgDate() == null
-				|| loginUserDto.getPasswordNgDate().isEmpty()) {
-			return true;
-		}
-		// 現在日時取得
-		Calendar now = dateUtil.toCalendar(dateUtil.getCurrentDateString());
-		now.add(Calendar.MINUTE, -lockMinute);
-		// ロック日時がロック日時より規定時間たっているか確認
-		if (now.compareTo(dateUtil.toCalendar(loginUserDto.getPasswordNgDate())) > 0) {
-			loginUserDto.setPasswordNgDate("");
-			loginUserDto.setPasswordNgCount(0);
-			return true;
-		}
-		return false;
+	private boolean checkLockTime(String loginId) {
+		return !loginAttemptTracker.isLocked(loginId, request.getRemoteAddr());
 	}
 
 	/**
-	 * アカウントNG回数チェック
+	 * アカウントNG回数チェック（ログイン失敗を記録する）
 	 * 
-	 * @return 判定結果
+	 * @param loginId
+	 * @return 判定結果（規定回数に達してロックされた場合false）
 	 */
-	private boolean checkLockCount() {
-		if (loginUserDto.getPasswordNgCount() >= lockCount) {
-			loginUserDto.setPasswordNgDate(dateUtil.getCurrentDateString());
-			return false;
-		}
-		return true;
+	private boolean checkLockCount(String loginId) {
+		return !loginAttemptTracker.recordFailure(loginId, request.getRemoteAddr());
 	}
 
 	/**
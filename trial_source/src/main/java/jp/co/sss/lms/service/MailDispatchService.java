@@ -0,0 +1,156 @@
+package jp.co.sss.lms.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jp.co.sss.lms.entity.TMailQue;
+import jp.co.sss.lms.mapper.TMailQueMapper;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.MailUtil;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * メール送信キュー配信サービス
+ * 
+ * @author 東京ITスクール
+ */
+@Service
+public class MailDispatchService {
+
+	/** 再送間隔の上限（秒） */
+	private static final long MAX_RETRY_INTERVAL_SECOND = 60 * 60;
+
+	@Autowired
+	private TMailQueMapper tMailQueMapper;
+	@Autowired
+	private MailUtil mailUtil;
+	@Autowired
+	private MessageUtil messageUtil;
+	@Autowired
+	private DateUtil dateUtil;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * メール送信キューの配信<br>
+	 * 送信対象を行ロックして取得し、送信結果を記録する。
+	 * 送信に失敗したメールは間隔を延ばしながら再送し、上限回数に達した場合は失敗通知を登録する。
+	 * 
+	 * @param limit 一回あたりの取得件数
+	 * @return 処理件数
+	 */
+	@Transactional
+	public int dispatch(int limit) {
+		Date now = new Date();
+		List<TMailQue> tMailQueList = tMailQueMapper.findSendTargetForUpdate(
+				Constants.CODE_VAL_MAIL_SEND_STATUS_UNSENT, now, limit, Constants.DB_FLG_FALSE);
+		if (tMailQueList.isEmpty()) {
+			return 0;
+		}
+
+		List<SimpleMailMessage> msgList = new ArrayList<>();
+		for (TMailQue tMailQue : tMailQueList) {
+			msgList.add(mailUtil.createMessage(tMailQue.getMailAddressTo(),
+					splitAddress(tMailQue.getMailAddressCc()), tMailQue.getSubject(),
+					tMailQue.getBody()));
+		}
+		Set<Integer> failedIndexSet = mailUtil.sendMails(msgList);
+
+		int retryLimit = Integer
+				.parseInt(messageUtil.getMessage("setting.mail.fail.notification.period"));
+		long retryInterval = Long.parseLong(messageUtil.getMessage("setting.mail.que.wait"));
+		Date sendDate = new Date();
+		for (int i = 0; i < tMailQueList.size(); i++) {
+			TMailQue tMailQue = tMailQueList.get(i);
+			tMailQue.setLastModifiedDate(sendDate);
+			if (!failedIndexSet.contains(i)) {
+				tMailQue.setSendStatus(Constants.CODE_VAL_MAIL_SEND_STATUS_SENT);
+				tMailQue.setSendDate(sendDate);
+			} else {
+				int retryCount = tMailQue.getRetryCount() == null ? 1
+						: tMailQue.getRetryCount() + 1;
+				tMailQue.setRetryCount(retryCount);
+				if (retryCount >= retryLimit) {
+					tMailQue.setSendStatus(Constants.CODE_VAL_MAIL_SEND_STATUS_FAILED);
+					logger.error("メール送信失敗（再送打ち切り）：mailQueId=" + tMailQue.getMailQueId());
+					registFailedNotification(tMailQue, sendDate);
+				} else {
+					tMailQue.setNextSendDate(
+							new Date(sendDate.getTime() + getRetryInterval(retryInterval, retryCount)));
+					logger.warn("メール送信失敗：mailQueId=" + tMailQue.getMailQueId() + "、再送回数="
+							+ retryCount);
+				}
+			}
+			tMailQueMapper.updateSendResult(tMailQue);
+		}
+		return tMailQueList.size();
+	}
+
+	/**
+	 * 再送間隔の取得（再送回数ごとに倍増し、上限で頭打ち）
+	 * 
+	 * @param baseSecond 基準間隔（秒）
+	 * @param retryCount 再送回数
+	 * @return 再送間隔（ミリ秒）
+	 */
+	private long getRetryInterval(long baseSecond, int retryCount) {
+		int shift = Math.min(retryCount - 1, 16);
+		long second = Math.min(baseSecond << shift, MAX_RETRY_INTERVAL_SECOND);
+		return Math.max(second, 1) * 1000;
+	}
+
+	/**
+	 * 送信失敗通知をメール送信キューに登録
+	 * 
+	 * @param tMailQue 送信に失敗したメール送信キュー
+	 * @param now
+	 */
+	private void registFailedNotification(TMailQue tMailQue, Date now) {
+		String to = messageUtil.getMessage("setting.tismail");
+		// 失敗通知自体の送信失敗では再通知しない
+		if (StringUtils.isEmpty(to) || to.equals(tMailQue.getMailAddressTo())) {
+			return;
+		}
+		String body = messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_BODY)
+				.replace(Constants.REPLACE_CHAR_MAIL_ADDRESS, tMailQue.getMailAddressTo())
+				.replace(Constants.REPLACE_CHAR_SUBJECT, tMailQue.getSubject())
+				.replace(Constants.REPLACE_CHAR_QUE_CREATE_DATE,
+						dateUtil.dateToString(tMailQue.getFirstCreateDate()));
+		TMailQue notification = new TMailQue();
+		notification.setMailAddressTo(to);
+		notification.setSubject(messageUtil.getMessage(Constants.PROP_KEY_MAIL_MAILFAILED_SUBJECT));
+		notification.setBody(body);
+		notification.setSendStatus(Constants.CODE_VAL_MAIL_SEND_STATUS_UNSENT);
+		notification.setRetryCount(0);
+		notification.setNextSendDate(now);
+		notification.setDeleteFlg(Constants.DB_FLG_FALSE);
+		notification.setFirstCreateDate(now);
+		notification.setLastModifiedDate(now);
+		tMailQueMapper.insert(notification);
+	}
+
+	/**
+	 * カンマ区切りのメールアドレスを分割
+	 * 
+	 * @param address
+	 * @return メールアドレスの配列（空の場合null）
+	 */
+	private String[] splitAddress(String address) {
+		if (StringUtils.isBlank(address)) {
+			return null;
+		}
+		return StringUtils.stripAll(address.split(","));
+	}
+
+}
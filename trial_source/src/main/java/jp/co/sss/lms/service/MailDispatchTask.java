@@ -0,0 +1,58 @@
+package jp.co.sss.lms.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * メール送信キュー配信タスク<br>
+ * メール送信キュー取得の待ち時間ごとにキューを確認し、未送信のメールがなくなるまで配信する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class MailDispatchTask implements SchedulingConfigurer {
+
+	@Autowired
+	private MailDispatchService mailDispatchService;
+	@Autowired
+	private MessageUtil messageUtil;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+		long queWait = Long.parseLong(messageUtil.getMessage("setting.mail.que.wait"));
+		taskRegistrar.addFixedDelayTask(this::run, Duration.ofSeconds(queWait));
+	}
+
+	/**
+	 * メール送信キューの配信
+	 */
+	public void run() {
+		// メール送信フラグが0の場合は送信しない（テスト環境用）
+		if ("0".equals(messageUtil.getMessage("setting.mail.send.flg"))) {
+			return;
+		}
+		int limit = Integer.parseInt(messageUtil.getMessage("setting.mail.que.batch"));
+		long sendWait = Long.parseLong(messageUtil.getMessage("setting.mail.send.wait"));
+		try {
+			while (mailDispatchService.dispatch(limit) >= limit) {
+				Thread.sleep(sendWait * 1000);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			// 次回の実行で再試行する
+			logger.error("メール送信キューの配信に失敗しました", e);
+		}
+	}
+
+}
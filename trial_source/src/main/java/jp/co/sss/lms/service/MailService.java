@@ -55,6 +55,9 @@ public class MailService {
 		tMailQue.setMailAddressCc(cc);
 		tMailQue.setSubject(subject);
 		tMailQue.setBody(body);
+		tMailQue.setSendStatus(Constants.CODE_VAL_MAIL_SEND_STATUS_UNSENT);
+		tMailQue.setRetryCount(0);
+		tMailQue.setNextSendDate(now);
 		tMailQue.setDeleteFlg(Constants.DB_FLG_FALSE);
 		tMailQue.setFirstCreateDate(now);
 		tMailQue.setLastModifiedDate(now);
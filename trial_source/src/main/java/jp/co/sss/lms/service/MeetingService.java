@@ -12,6 +12,7 @@ import jp.co.sss.lms.dto.WorkbookDto;
 import jp.co.sss.lms.mapper.TMeetingMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.ExcelTemplateCache;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.MessageUtil;
 
@@ -23,6 +24,8 @@ import jp.co.sss.lms.util.MessageUtil;
 @Service
 public class MeetingService {
 
+	@Autowired
+	private ExcelTemplateCache excelTemplateCache;
 	@Autowired
 	private TMeetingMapper tMeetingMapper;
 	@Autowired
@@ -47,7 +50,7 @@ public class MeetingService {
 		// テンプレートファイルのパスを設定
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + meetingDownloadDto.getFileName();
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		ExcelUtil excelUtil = new ExcelUtil(excelTemplateCache.open(excelFilePath));
 
 		// 企業名
 		excelUtil.setVal(meetingDownloadDto.getSheetName(), meetingDownloadDto.getRowCompany(),
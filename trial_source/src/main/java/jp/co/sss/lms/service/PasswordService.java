@@ -18,13 +18,13 @@ import jp.co.sss.lms.entity.MUser;
 import jp.co.sss.lms.entity.TTemporaryPassStorage;
 import jp.co.sss.lms.form.LoginForm;
 import jp.co.sss.lms.form.MailAddressForm;
-import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.mapper.TTemporaryPassStorageMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
-import jp.co.sss.lms.util.MailUtil;
+import jp.co.sss.lms.util.LoginUserCache;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.PasswordHashUtil;
 import jp.co.sss.lms.util.PasswordUtil;
 
 /**
@@ -46,15 +46,15 @@ public class PasswordService {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private LoginMapper loginMapper;
+	private LoginUserCache loginUserCache;
 	@Autowired
 	private TTemporaryPassStorageMapper tTemporaryPassStorageMapper;
 	@Autowired
 	private PasswordUtil passwordUtil;
 	@Autowired
-	private MailService mailService;
+	private PasswordHashUtil passwordHashUtil;
 	@Autowired
-	private MailUtil mailUtil;
+	private MailService mailService;
 
 	/**
 	 * パスワード相関チェック（パスワード変更）
@@ -68,9 +68,8 @@ public class PasswordService {
 		}
 		MUser mUser = mUserMapper.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
 		// 現在のパスワードと登録パスワードが一致しない場合
-		String hashedCurrentPassword = passwordUtil
-				.getSaltedAndStrechedPassword(loginForm.getCurrentPassword(), mUser.getLoginId());
-		if (!mUser.getPassword().equals(hashedCurrentPassword)) {
+		if (!passwordHashUtil.matches(loginForm.getCurrentPassword(), mUser.getLoginId(),
+				mUser.getPassword())) {
 			String currentPassword = "「" + messageUtil.getMessage("currentPassword") + "」";
 			String registPassword = messageUtil.getMessage("registPassword");
 			result.addError(new FieldError(result.getObjectName(), "currentPassword", messageUtil
@@ -100,8 +99,7 @@ public class PasswordService {
 	public String changePassword(LoginForm loginForm) {
 		// 更新
 		MUser mUser = mUserMapper.findByUserId(loginUserDto.getUserId(), Constants.DB_FLG_FALSE);
-		mUser.setPassword(passwordUtil.getSaltedAndStrechedPassword(loginForm.getPassword(),
-				mUser.getLoginId()));
+		mUser.setPassword(passwordHashUtil.encode(loginForm.getPassword(), mUser.getLoginId()));
 		mUser.setPasswordChangeDate(dateUtil.stringToTimestamp(dateUtil.getCurrentDateString()));
 		mUser.setLastModifiedUser(loginUserDto.getUserId());
 		Date now = new Date();
@@ -109,12 +107,11 @@ public class PasswordService {
 		boolean updateFlg = mUserMapper.updatePassword(mUser);
 		if (updateFlg) {
 			// 最新のログイン詳細が取得できればセッションに登録
-			LoginUser loginUser = loginMapper.getLoginDetailByLmsUserId(loginUserDto.getLmsUserId(),
-					Constants.DB_FLG_FALSE);
+			LoginUser loginUser = loginUserCache.getByLmsUserId(loginUserDto.getLmsUserId());
 			if (loginUser != null) {
 				BeanUtils.copyProperties(loginUser, loginUserDto);
-				loginUserDto.setPasswordNgCount(0);
-				loginUserDto.setPasswordNgDate("");
+				loginUserDto.setPasswordExpireTime(
+						dateUtil.getPasswordExpireTime(loginUser.getPasswordChangeDate()));
 				session.setAttribute("loginUserDto", loginUserDto);
 				// パスワード変更テーブルの情報があれば削除
 				TTemporaryPassStorage tTemporaryPassStorage = tTemporaryPassStorageMapper
@@ -219,8 +216,8 @@ public class PasswordService {
 		String subject = messageUtil.getMessage(Constants.PROP_KEY_MAIL_RESETPASS_SUBJECT);
 		String body = messageUtil.getMessage(Constants.PROP_KEY_MAIL_RESETPASS_BODY);
 		body = body.replace(Constants.REPLACE_CHAR_RESET_PASSWORD_URL, url);
+		// 送信はメール送信キュー配信タスクが行う
 		mailService.registMailQue(to, subject, body, null, null);
-		mailUtil.sendMail(to, null, subject, body);
 	}
 
 	/**
@@ -1,7 +1,9 @@
 package jp.co.sss.lms.service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -9,6 +11,7 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jp.co.sss.lms.dto.DailyReportDetailDto;
 import jp.co.sss.lms.dto.DailyReportDownloadDto;
@@ -28,9 +31,11 @@ import jp.co.sss.lms.mapper.TIntelligibilityMapper;
 import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.ExcelTemplateCache;
 import jp.co.sss.lms.util.ExcelUtil;
 import jp.co.sss.lms.util.LoginUserUtil;
 import jp.co.sss.lms.util.MessageUtil;
+import jp.co.sss.lms.util.WorkbookZipWriter;
 
 /**
  * レポート情報サービス
@@ -40,6 +45,8 @@ import jp.co.sss.lms.util.MessageUtil;
 @Service
 public class ReportService {
 
+	@Autowired
+	private ExcelTemplateCache excelTemplateCache;
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
@@ -58,6 +65,8 @@ public class ReportService {
 	private TDailyReportSubmitDetailMapper tDailyReportSubmitDetailMapper;
 	@Autowired
 	private TIntelligibilityMapper tIntelligibilityMapper;
+	@Autowired
+	private WorkbookZipWriter workbookZipWriter;
 
 	/**
 	 * レポート情報取得
@@ -139,6 +148,7 @@ public class ReportService {
 	 * @param form
 	 * @throws ParseException
 	 */
+	@Transactional
 	public void submit(DailyReportSubmitForm dailyReportSubmitForm) throws ParseException {
 
 		Date today = new Date();
@@ -163,20 +173,9 @@ public class ReportService {
 			tDailyReportSubmit
 					.setDailyReportSubmitId(dailyReportSubmitForm.getDailyReportSubmitId());
 			tDailyReportSubmitMapper.update(tDailyReportSubmit);
-			// 日報提出詳細の削除
-			Integer countSubmitDetail = tDailyReportSubmitDetailMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countSubmitDetail > 0) {
-				tDailyReportSubmitDetailMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
-			// 理解度の削除
-			Integer countIntelligibility = tIntelligibilityMapper
-					.getCountByDailyReportSubmitId(tDailyReportSubmit.getDailyReportSubmitId());
-			if (countIntelligibility > 0) {
-				tIntelligibilityMapper.delete(tDailyReportSubmit.getDailyReportSubmitId());
-			}
 		}
-		// レポート詳細登録
+		// レポート詳細登録（再提出時は既存の行と置き換え）
+		List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList = new ArrayList<>();
 		for (int i = 0; i < dailyReportSubmitForm.getContentArray().length; i++) {
 			TDailyReportSubmitDetail tDailyReportSubmitDetail = new TDailyReportSubmitDetail();
 			tDailyReportSubmitDetail
@@ -189,9 +188,12 @@ public class ReportService {
 			tDailyReportSubmitDetail.setFirstCreateDate(today);
 			tDailyReportSubmitDetail.setLastModifiedUser(loginUserDto.getLmsUserId());
 			tDailyReportSubmitDetail.setLastModifiedDate(today);
-			tDailyReportSubmitDetailMapper.insert(tDailyReportSubmitDetail);
+			tDailyReportSubmitDetailList.add(tDailyReportSubmitDetail);
 		}
-		// 理解度登録
+		replaceDailyReportSubmitDetail(tDailyReportSubmit.getDailyReportSubmitId(),
+				tDailyReportSubmitDetailList);
+		// 理解度登録（再提出時は既存の行と置き換え）
+		List<TIntelligibility> tIntelligibilityList = new ArrayList<>();
 		if (dailyReportSubmitForm.getIntFieldNameArray() != null) {
 			for (int j = 0; j < dailyReportSubmitForm.getIntFieldNameArray().length; j++) {
 				TIntelligibility tIntelligibility = new TIntelligibility();
@@ -206,9 +208,41 @@ public class ReportService {
 				tIntelligibility.setFirstCreateDate(today);
 				tIntelligibility.setLastModifiedUser(loginUserDto.getLmsUserId());
 				tIntelligibility.setLastModifiedDate(today);
-				tIntelligibilityMapper.insert(tIntelligibility);
+				tIntelligibilityList.add(tIntelligibility);
 			}
 		}
+		replaceIntelligibility(tDailyReportSubmit.getDailyReportSubmitId(), tIntelligibilityList);
+	}
+
+	/**
+	 * 日報提出詳細の置換
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tDailyReportSubmitDetailList
+	 */
+	private void replaceDailyReportSubmitDetail(Integer dailyReportSubmitId,
+			List<TDailyReportSubmitDetail> tDailyReportSubmitDetailList) {
+		if (tDailyReportSubmitDetailList.isEmpty()) {
+			tDailyReportSubmitDetailMapper.delete(dailyReportSubmitId);
+		} else {
+			tDailyReportSubmitDetailMapper.replaceBulk(dailyReportSubmitId,
+					tDailyReportSubmitDetailList);
+		}
+	}
+
+	/**
+	 * 理解度の置換
+	 * 
+	 * @param dailyReportSubmitId
+	 * @param tIntelligibilityList
+	 */
+	private void replaceIntelligibility(Integer dailyReportSubmitId,
+			List<TIntelligibility> tIntelligibilityList) {
+		if (tIntelligibilityList.isEmpty()) {
+			tIntelligibilityMapper.delete(dailyReportSubmitId);
+		} else {
+			tIntelligibilityMapper.replaceBulk(dailyReportSubmitId, tIntelligibilityList);
+		}
 	}
 
 	/**
@@ -225,6 +259,54 @@ public class ReportService {
 		ExcelUtil.downloadBook(workbookDto, response);
 	}
 
+	/**
+	 * レポート一括ダウンロード対象のID組の取得
+	 * 
+	 * @param dailyReportIdList
+	 * @param dailyReportSubmitIdList
+	 * @return 日報IDと日報提出IDの組のリスト（件数が一致しない、または数値でない場合null）
+	 */
+	public List<Integer[]> getDownloadIdPairList(String[] dailyReportIdList,
+			String[] dailyReportSubmitIdList) {
+		List<Integer[]> idPairList = new ArrayList<>();
+		if (dailyReportIdList == null && dailyReportSubmitIdList == null) {
+			return idPairList;
+		}
+		if (dailyReportIdList == null || dailyReportSubmitIdList == null
+				|| dailyReportIdList.length != dailyReportSubmitIdList.length) {
+			return null;
+		}
+		try {
+			for (int i = 0; i < dailyReportIdList.length; i++) {
+				idPairList.add(new Integer[] { Integer.valueOf(dailyReportIdList[i]),
+						Integer.valueOf(dailyReportSubmitIdList[i]) });
+			}
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		return idPairList;
+	}
+
+	/**
+	 * レポート一括ダウンロード<br>
+	 * 選択されたレポートを1件ずつ生成してZIPへ直接書き込む。
+	 * 
+	 * @param idPairList 日報IDと日報提出IDの組のリスト
+	 * @param response
+	 * @throws IOException
+	 */
+	public void downloadList(List<Integer[]> idPairList, HttpServletResponse response)
+			throws IOException {
+		workbookZipWriter.download(messageUtil.getMessage("dailyReportId"), idPairList,
+				idPair -> {
+					try {
+						return getWorkbookDto(idPair[0], idPair[1]);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}, response);
+	}
+
 	/**
 	 * ワークブックDTO取得
 	 * 
@@ -245,7 +327,7 @@ public class ReportService {
 		String commonFileDir = messageUtil.getMessage("setting.file.common.dir");
 		String excelFilePath = commonFileDir + "/" + dailyReportDownloadDto.getFileName();
 
-		ExcelUtil excelUtil = new ExcelUtil(excelFilePath);
+		ExcelUtil excelUtil = new ExcelUtil(excelTemplateCache.open(excelFilePath));
 
 		// 企業名
 		excelUtil.setVal(dailyReportDownloadDto.getSheetName(),
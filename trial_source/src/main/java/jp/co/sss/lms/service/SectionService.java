@@ -10,15 +10,16 @@ import org.springframework.stereotype.Service;
 
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.dto.SectionServiceDailyReportDto;
+import jp.co.sss.lms.dto.SectionServiceExamDto;
 import jp.co.sss.lms.dto.SectionServiceFileDto;
 import jp.co.sss.lms.dto.SectionServiceSectionDto;
 import jp.co.sss.lms.form.SectionDetailForm;
 import jp.co.sss.lms.mapper.MSectionMapper;
 import jp.co.sss.lms.mapper.TSectionDailyReportMapper;
 import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.FileTokenUtil;
 import jp.co.sss.lms.util.LoggingUtil;
 import jp.co.sss.lms.util.MessageUtil;
-import jp.co.sss.lms.util.PasswordUtil;
 
 /**
  * セクション情報サービス
@@ -37,7 +38,7 @@ public class SectionService {
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
-	private PasswordUtil passwordUtil;
+	private FileTokenUtil fileTokenUtil;
 	@Autowired
 	private LoggingUtil loggingUtil;
 
@@ -70,8 +71,27 @@ public class SectionService {
 	public void getSectionDetail(SectionDetailForm sectionDetailForm) {
 		// セクションサービスDTOの取得
 		SectionServiceSectionDto sectionServiceSectionDto = mSectionMapper.getSectionDetail(
-				sectionDetailForm.getSectionId(), loginUserDto.getAccountId(),
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
+				sectionDetailForm.getSectionId(), loginUserDto.getAccountId(), Constants.DB_FLG_FALSE);
+		if (sectionServiceSectionDto != null) {
+			// 結合すると各リストの件数の積の行数になるため、リストごとに取得して組み立てる
+			Integer sectionId = sectionServiceSectionDto.getSectionId();
+			sectionServiceSectionDto.setFileDtoList(mSectionMapper.getSectionFileDtoList(sectionId));
+			List<SectionServiceExamDto> examDtoList = mSectionMapper.getSectionExamDtoList(sectionId,
+					Constants.DB_FLG_FALSE);
+			for (SectionServiceExamDto examDto : examDtoList) {
+				examDto.setCourseId(sectionServiceSectionDto.getCourseId());
+			}
+			sectionServiceSectionDto.setExamDtoList(examDtoList);
+			List<SectionServiceDailyReportDto> reportDtoList = mSectionMapper.getCourseDailyReportDtoList(
+					sectionServiceSectionDto.getCourseId(), sectionServiceSectionDto.getDate(),
+					loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE);
+			for (SectionServiceDailyReportDto reportDto : reportDtoList) {
+				reportDto.setDate(sectionServiceSectionDto.getDate());
+			}
+			sectionServiceSectionDto.setReportDtoList(reportDtoList);
+			sectionServiceSectionDto.setDeliverablesDtoList(
+					mSectionMapper.getSectionDeliverablesDtoList(sectionId, Constants.DB_FLG_FALSE));
+		}
 		BeanUtils.copyProperties(sectionServiceSectionDto, sectionDetailForm);
 		// セクション・日報紐付け情報の取得
 		List<SectionServiceDailyReportDto> sectionServiceDailyReportDtoList = tSectionDailyReportMapper
@@ -82,9 +102,8 @@ public class SectionService {
 		}
 		// ファイル情報の設定
 		for (SectionServiceFileDto fileDto : sectionServiceSectionDto.getFileDtoList()) {
-			String hashFileId = passwordUtil.getSaltedAndStrechedPassword(fileDto.getFileId(),
-					loginUserDto.getUserId().toString());
-			fileDto.setFileId(hashFileId);
+			fileDto.setFileId(
+					fileTokenUtil.getToken(fileDto.getFileId(), loginUserDto.getUserId()));
 		}
 		sectionServiceSectionDto.setMaxFileSize(Constants.DELIVERABLES_UPLOAD_MAX_SIZE);
 	}
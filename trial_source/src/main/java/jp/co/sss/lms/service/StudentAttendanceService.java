@@ -1,15 +1,20 @@
 package jp.co.sss.lms.service;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
@@ -20,6 +25,8 @@ import jp.co.sss.lms.enums.AttendanceStatusEnum;
 import jp.co.sss.lms.form.AttendanceForm;
 import jp.co.sss.lms.form.DailyAttendanceForm;
 import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceManagementCache;
+import jp.co.sss.lms.util.AttendanceNotEnteredCache;
 import jp.co.sss.lms.util.AttendanceUtil;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
@@ -47,6 +54,12 @@ public class StudentAttendanceService {
 	private LoginUserDto loginUserDto;
 	@Autowired
 	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private AttendanceNotEnteredCache attendanceNotEnteredCache;
+	@Autowired
+	private AttendanceManagementCache attendanceManagementCache;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
 	 * 勤怠一覧情報取得
@@ -59,9 +72,13 @@ public class StudentAttendanceService {
 			Integer lmsUserId) {
 
 		// 勤怠管理リストの取得
-		List<AttendanceManagementDto> attendanceManagementDtoList = tStudentAttendanceMapper
-				.getAttendanceManagement(courseId, lmsUserId, Constants.DB_FLG_FALSE);
+		List<AttendanceManagementDto> attendanceManagementDtoList = attendanceManagementCache
+				.getList(courseId, lmsUserId);
+		long today = attendanceUtil.getTrainingDate().getTime();
 		for (AttendanceManagementDto dto : attendanceManagementDtoList) {
+			// 当日フラグを設定
+			dto.setIsToday(
+					dto.getTrainingDate() != null && dto.getTrainingDate().getTime() == today);
 			// 中抜け時間を設定
 			if (dto.getBlankTime() != null) {
 				TrainingTime blankTime = attendanceUtil.calcBlankTime(dto.getBlankTime());
@@ -115,9 +132,9 @@ public class StudentAttendanceService {
 				// 本日の勤怠情報は既に入力されています。直接編集してください。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHALREADYEXISTS);
 			}
-			TrainingTime trainingStartTime = new TrainingTime(
+			TrainingTime trainingStartTime = TrainingTime.parse(
 					tStudentAttendance.getTrainingStartTime());
-			TrainingTime trainingEndTime = new TrainingTime();
+			TrainingTime trainingEndTime = TrainingTime.now();
 			if (trainingStartTime.compareTo(trainingEndTime) > 0) {
 				// 退勤時刻は出勤時刻より後でなければいけません。
 				return messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGE);
@@ -138,7 +155,7 @@ public class StudentAttendanceService {
 		// 本日の研修日
 		Date trainingDate = attendanceUtil.getTrainingDate();
 		// 現在の研修時刻
-		TrainingTime trainingStartTime = new TrainingTime();
+		TrainingTime trainingStartTime = TrainingTime.now();
 		// 遅刻早退ステータス
 		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
 				null);
@@ -172,6 +189,10 @@ public class StudentAttendanceService {
 			tStudentAttendance.setLastModifiedDate(date);
 			tStudentAttendanceMapper.update(tStudentAttendance);
 		}
+		attendanceNotEnteredCache.apply(loginUserDto.getLmsUserId(), List.of(tStudentAttendance));
+		// 勤怠一覧は本日の行のみ再取得する
+		attendanceManagementCache.refresh(loginUserDto.getCourseId(), loginUserDto.getLmsUserId(),
+				trainingDate);
 		// 完了メッセージ
 		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
 	}
@@ -191,9 +212,9 @@ public class StudentAttendanceService {
 				.findByLmsUserIdAndTrainingDate(loginUserDto.getLmsUserId(), trainingDate,
 						Constants.DB_FLG_FALSE);
 		// 出退勤時刻
-		TrainingTime trainingStartTime = new TrainingTime(
+		TrainingTime trainingStartTime = TrainingTime.parse(
 				tStudentAttendance.getTrainingStartTime());
-		TrainingTime trainingEndTime = new TrainingTime();
+		TrainingTime trainingEndTime = TrainingTime.now();
 		// 遅刻早退ステータス
 		AttendanceStatusEnum attendanceStatusEnum = attendanceUtil.getStatus(trainingStartTime,
 				trainingEndTime);
@@ -204,6 +225,10 @@ public class StudentAttendanceService {
 		tStudentAttendance.setLastModifiedUser(loginUserDto.getLmsUserId());
 		tStudentAttendance.setLastModifiedDate(date);
 		tStudentAttendanceMapper.update(tStudentAttendance);
+		attendanceNotEnteredCache.apply(loginUserDto.getLmsUserId(), List.of(tStudentAttendance));
+		// 勤怠一覧は本日の行のみ再取得する
+		attendanceManagementCache.refresh(loginUserDto.getCourseId(), loginUserDto.getLmsUserId(),
+				trainingDate);
 		// 完了メッセージ
 		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
 	}
@@ -296,48 +321,73 @@ public class StudentAttendanceService {
 	 * @return 完了メッセージ
 	 * @throws ParseException
 	 */
+	@Transactional
 	public String update(AttendanceForm attendanceForm) throws ParseException {
 
 		Integer lmsUserId = loginUserUtil.isStudent() ? loginUserDto.getLmsUserId()
 				: attendanceForm.getLmsUserId();
 
-		// 現在の勤怠情報（受講生入力）リストを取得
-		List<TStudentAttendance> tStudentAttendanceList = tStudentAttendanceMapper
-				.findByLmsUserId(lmsUserId, Constants.DB_FLG_FALSE);
+		// 変更のあった勤怠情報のみ登録・更新
+		int updateCount = registAttendanceDiff(lmsUserId, attendanceForm.getAttendanceList());
+		logger.info("勤怠情報登録・更新件数：" + updateCount + "件（LMSユーザーID：" + lmsUserId + "）");
+
+		// 完了メッセージ
+		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+	}
 
-		// 入力された情報を更新用のエンティティに移し替え
+	/**
+	 * 勤怠情報の差分登録・更新
+	 * 
+	 * 入力された日次勤怠フォームと登録済みの勤怠情報を比較し、未登録の日は一括登録、 内容に変更のあった日のみ一括更新する。
+	 * 
+	 * @param lmsUserId
+	 * @param dailyAttendanceFormList
+	 * @return 登録・更新件数
+	 * @throws ParseException
+	 */
+	@Transactional
+	public int registAttendanceDiff(Integer lmsUserId,
+			List<DailyAttendanceForm> dailyAttendanceFormList) throws ParseException {
+
+		// 現在の勤怠情報（受講生入力）を研修日をキーに取得
+		Map<Date, TStudentAttendance> currentMap = new HashMap<>();
+		for (TStudentAttendance entity : tStudentAttendanceMapper.findByLmsUserId(lmsUserId,
+				Constants.DB_FLG_FALSE)) {
+			currentMap.put(entity.getTrainingDate(), entity);
+		}
+
+		// 入力された情報を登録用・更新用のエンティティに振り分け
 		Date date = new Date();
-		for (DailyAttendanceForm dailyAttendanceForm : attendanceForm.getAttendanceList()) {
+		List<TStudentAttendance> insertList = new ArrayList<>();
+		List<TStudentAttendance> updateList = new ArrayList<>();
+		for (DailyAttendanceForm dailyAttendanceForm : dailyAttendanceFormList) {
+
+			// 研修日付
+			Date trainingDate = dateUtil.parse(dailyAttendanceForm.getTrainingDate());
+			// 研修日が同じ現在の勤怠情報
+			TStudentAttendance current = currentMap.get(trainingDate);
 
 			// 更新用エンティティ作成
 			TStudentAttendance tStudentAttendance = new TStudentAttendance();
-			// 日次勤怠フォームから更新用のエンティティにコピー
-			BeanUtils.copyProperties(dailyAttendanceForm, tStudentAttendance);
-			// 研修日付
-			tStudentAttendance
-					.setTrainingDate(dateUtil.parse(dailyAttendanceForm.getTrainingDate()));
-			// 現在の勤怠情報リストのうち、研修日が同じものを更新用エンティティで上書き
-			for (TStudentAttendance entity : tStudentAttendanceList) {
-				if (entity.getTrainingDate().equals(tStudentAttendance.getTrainingDate())) {
-					tStudentAttendance = entity;
-					break;
-				}
+			if (current != null) {
+				BeanUtils.copyProperties(current, tStudentAttendance);
+			} else {
+				tStudentAttendance.setTrainingDate(trainingDate);
 			}
 			tStudentAttendance.setLmsUserId(lmsUserId);
 			tStudentAttendance.setAccountId(loginUserDto.getAccountId());
 			// 出勤時刻整形
-			TrainingTime trainingStartTime = null;
-			trainingStartTime = new TrainingTime(dailyAttendanceForm.getTrainingStartTime());
+			TrainingTime trainingStartTime = TrainingTime.parse(
+					dailyAttendanceForm.getTrainingStartTime());
 			tStudentAttendance.setTrainingStartTime(trainingStartTime.getFormattedString());
 			// 退勤時刻整形
-			TrainingTime trainingEndTime = null;
-			trainingEndTime = new TrainingTime(dailyAttendanceForm.getTrainingEndTime());
+			TrainingTime trainingEndTime = TrainingTime.parse(
+					dailyAttendanceForm.getTrainingEndTime());
 			tStudentAttendance.setTrainingEndTime(trainingEndTime.getFormattedString());
 			// 中抜け時間
 			tStudentAttendance.setBlankTime(dailyAttendanceForm.getBlankTime());
 			// 遅刻早退ステータス
-			if ((trainingStartTime != null || trainingEndTime != null)
-					&& !dailyAttendanceForm.getStatusDispName().equals("欠席")) {
+			if (!"欠席".equals(dailyAttendanceForm.getStatusDispName())) {
 				AttendanceStatusEnum attendanceStatusEnum = attendanceUtil
 						.getStatus(trainingStartTime, trainingEndTime);
 				tStudentAttendance.setStatus(attendanceStatusEnum.code);
@@ -349,21 +399,48 @@ public class StudentAttendanceService {
 			tStudentAttendance.setLastModifiedDate(date);
 			// 削除フラグ
 			tStudentAttendance.setDeleteFlg(Constants.DB_FLG_FALSE);
-			// 登録用Listへ追加
-			tStudentAttendanceList.add(tStudentAttendance);
-		}
-		// 登録・更新処理
-		for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
-			if (tStudentAttendance.getStudentAttendanceId() == null) {
+
+			if (current == null) {
+				// 未登録の研修日は登録用Listへ追加
 				tStudentAttendance.setFirstCreateUser(loginUserDto.getLmsUserId());
 				tStudentAttendance.setFirstCreateDate(date);
-				tStudentAttendanceMapper.insert(tStudentAttendance);
-			} else {
-				tStudentAttendanceMapper.update(tStudentAttendance);
+				insertList.add(tStudentAttendance);
+			} else if (isAttendanceChanged(current, tStudentAttendance)) {
+				// 変更のあった研修日のみ更新用Listへ追加
+				updateList.add(tStudentAttendance);
 			}
 		}
-		// 完了メッセージ
-		return messageUtil.getMessage(Constants.PROP_KEY_ATTENDANCE_UPDATE_NOTICE);
+
+		// 一括登録・更新処理
+		int count = 0;
+		if (!insertList.isEmpty()) {
+			count += tStudentAttendanceMapper.insertBulk(insertList);
+		}
+		if (!updateList.isEmpty()) {
+			count += tStudentAttendanceMapper.updateBulk(updateList);
+		}
+		// 未入力日の差分反映
+		attendanceNotEnteredCache.apply(lmsUserId, insertList);
+		attendanceNotEnteredCache.apply(lmsUserId, updateList);
+		if (count > 0) {
+			attendanceManagementCache.evict(lmsUserId);
+		}
+		return count;
+	}
+
+	/**
+	 * 勤怠情報の変更有無判定
+	 * 
+	 * @param current 登録済みの勤怠情報
+	 * @param updated 入力内容を反映した勤怠情報
+	 * @return 変更がある場合true
+	 */
+	private boolean isAttendanceChanged(TStudentAttendance current, TStudentAttendance updated) {
+		return !Objects.equals(current.getTrainingStartTime(), updated.getTrainingStartTime())
+				|| !Objects.equals(current.getTrainingEndTime(), updated.getTrainingEndTime())
+				|| !Objects.equals(current.getBlankTime(), updated.getBlankTime())
+				|| !Objects.equals(current.getStatus(), updated.getStatus())
+				|| !Objects.equals(current.getNote(), updated.getNote());
 	}
 
 	/**
@@ -372,20 +449,9 @@ public class StudentAttendanceService {
 	 * @return attendanceNotEnteredFlag
 	 */
 	public boolean attendanceNotEnteredCheck() {
-		SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-		String todayStr = sdf.format(new Date());
-		Date today = java.sql.Date.valueOf(todayStr);
-		//勤怠過去日未入力件数の取得
-		int attendanceNotEnteredCount = tStudentAttendanceMapper.countByNullTrainingStartTimeOrTrainingEndTime(
-				loginUserDto.getLmsUserId(), Constants.DB_FLG_FALSE, today);
-		//勤怠過去日未入力チェック有無フラグ
-		boolean attendanceNotEnteredFlag;
-		if (attendanceNotEnteredCount > 0) {
-			attendanceNotEnteredFlag = true;
-		} else {
-			attendanceNotEnteredFlag = false;
-		}
-		return attendanceNotEnteredFlag;
+		//勤怠過去日未入力の有無（未入力日は登録・更新時に差分反映済み）
+		return attendanceNotEnteredCache.hasNotEnteredBefore(loginUserDto.getLmsUserId(),
+				new Date());
 	}
 
 	/**
@@ -428,9 +494,8 @@ public class StudentAttendanceService {
 			}
 			String trainingStartTime = dailyAttendanceForm.getTrainingStartTime();
 			String trainingEndTime = dailyAttendanceForm.getTrainingEndTime();
-			TrainingTime checkTime = new TrainingTime();
-			boolean isStartTime = checkTime.isValidTrainingTime(trainingStartTime);
-			boolean isEndTime = checkTime.isValidTrainingTime(trainingEndTime);
+			boolean isStartTime = TrainingTime.isValid(trainingStartTime);
+			boolean isEndTime = TrainingTime.isValid(trainingEndTime);
 			//出勤時間の時分が入力されているかをチェック
 			if (isStartTime == false) {
 				String trainingStartHour = dailyAttendanceForm.getTrainingStartHour();
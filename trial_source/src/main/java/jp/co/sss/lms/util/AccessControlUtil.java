@@ -0,0 +1,220 @@
+package jp.co.sss.lms.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * アクセス制御ユーティリティ<br>
+ * 設定ファイルから権限ごとのアクセス可能URI・ログイン不要URI・静的リソースを読み込み、 照合用のトライ木として保持する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class AccessControlUtil {
+
+	/** 静的リソースのキー */
+	private static final String KEY_STATIC = "access.static";
+	/** ログイン不要URI（完全一致）のキー */
+	private static final String KEY_PUBLIC_EXACT = "access.public.exact";
+	/** ログイン不要URI（前方一致）のキー */
+	private static final String KEY_PUBLIC_PREFIX = "access.public.prefix";
+	/** 権限ごとのアクセス可能URIのキー接頭辞 */
+	private static final String KEY_ROLE_PREFIX = "access.role.";
+
+	/** アクセス制御設定ファイル */
+	@Value("${setting.access.config:classpath:access.properties}")
+	private Resource accessConfig;
+	/** 再読込確認間隔（秒） */
+	@Value("${setting.access.reload.second:60}")
+	private long reloadSecond;
+
+	/** 照合テーブル */
+	private volatile AccessTable accessTable;
+	/** 次回の再読込確認時刻 */
+	private volatile long nextCheckTime;
+	/** 読込済み設定ファイルの更新日時 */
+	private long lastModified;
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * 照合テーブル
+	 */
+	private static final class AccessTable {
+		private final RouteTrie staticTrie;
+		private final RouteTrie publicTrie;
+		private final Map<String, RouteTrie> roleTrieMap;
+
+		private AccessTable(RouteTrie staticTrie, RouteTrie publicTrie,
+				Map<String, RouteTrie> roleTrieMap) {
+			this.staticTrie = staticTrie;
+			this.publicTrie = publicTrie;
+			this.roleTrieMap = roleTrieMap;
+		}
+	}
+
+	/**
+	 * 起動時の読込
+	 */
+	@PostConstruct
+	public void init() {
+		try {
+			reload();
+		} catch (IOException e) {
+			throw new IllegalStateException("アクセス制御設定を読み込めません：" + accessConfig, e);
+		}
+	}
+
+	/**
+	 * アクセス制御設定の再読込
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void reload() throws IOException {
+		Properties props = PropertiesLoaderUtils
+				.loadProperties(new EncodedResource(accessConfig, "UTF-8"));
+
+		RouteTrie.Builder staticBuilder = new RouteTrie.Builder();
+		for (String path : split(props.getProperty(KEY_STATIC))) {
+			staticBuilder.addPrefix(path);
+		}
+		RouteTrie.Builder publicBuilder = new RouteTrie.Builder();
+		for (String path : split(props.getProperty(KEY_PUBLIC_EXACT))) {
+			publicBuilder.addExact(path);
+		}
+		for (String path : split(props.getProperty(KEY_PUBLIC_PREFIX))) {
+			publicBuilder.addPrefix(path);
+		}
+		Map<String, RouteTrie> roleTrieMap = new HashMap<>();
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith(KEY_ROLE_PREFIX)) {
+				RouteTrie.Builder roleBuilder = new RouteTrie.Builder();
+				for (String path : split(props.getProperty(key))) {
+					roleBuilder.addExact(path);
+				}
+				roleTrieMap.put(key.substring(KEY_ROLE_PREFIX.length()), roleBuilder.build());
+			}
+		}
+
+		accessTable = new AccessTable(staticBuilder.build(), publicBuilder.build(),
+				Map.copyOf(roleTrieMap));
+		lastModified = getLastModified();
+		nextCheckTime = System.currentTimeMillis() + reloadSecond * 1000;
+	}
+
+	/**
+	 * 静的なURIか確認
+	 *
+	 * @param uri
+	 * @return boolean
+	 */
+	public boolean isStatic(String uri) {
+		return getAccessTable().staticTrie.matchesAnywhere(uri, '/');
+	}
+
+	/**
+	 * ログインしていなくても遷移できるURIか確認
+	 *
+	 * @param uri
+	 * @param contextPath
+	 * @return boolean
+	 */
+	public boolean isPublic(String uri, String contextPath) {
+		if (!uri.startsWith(contextPath)) {
+			return false;
+		}
+		// コンテキストルート自体はログイン画面のため常に対象
+		if (uri.length() == contextPath.length()) {
+			return true;
+		}
+		return getAccessTable().publicTrie.matches(uri, contextPath.length());
+	}
+
+	/**
+	 * 権限毎のアクセス制限チェック
+	 *
+	 * @param role
+	 * @param uri
+	 * @return アクセス可能な場合true
+	 */
+	public boolean isAccess(String role, String uri) {
+		if (role == null) {
+			return false;
+		}
+		RouteTrie roleTrie = getAccessTable().roleTrieMap.get(role);
+		return roleTrie != null && roleTrie.matches(uri);
+	}
+
+	/**
+	 * 照合テーブルの取得（確認間隔を過ぎていれば設定ファイルの更新を確認）
+	 *
+	 * @return 照合テーブル
+	 */
+	private AccessTable getAccessTable() {
+		if (reloadSecond > 0 && System.currentTimeMillis() >= nextCheckTime) {
+			checkReload();
+		}
+		return accessTable;
+	}
+
+	/**
+	 * 設定ファイルが更新されていれば再読込
+	 */
+	private synchronized void checkReload() {
+		if (System.currentTimeMillis() < nextCheckTime) {
+			return;
+		}
+		nextCheckTime = System.currentTimeMillis() + reloadSecond * 1000;
+		if (getLastModified() == lastModified) {
+			return;
+		}
+		try {
+			reload();
+			logger.info("アクセス制御設定を再読込しました：" + accessConfig);
+		} catch (IOException | RuntimeException e) {
+			// 読込に失敗した場合は直前の設定を使い続ける
+			logger.error("アクセス制御設定の再読込に失敗しました：" + accessConfig, e);
+		}
+	}
+
+	/**
+	 * 設定ファイルの更新日時を取得
+	 *
+	 * @return 更新日時（取得できない場合は0）
+	 */
+	private long getLastModified() {
+		try {
+			return accessConfig.lastModified();
+		} catch (IOException e) {
+			return 0L;
+		}
+	}
+
+	/**
+	 * カンマ区切りの設定値を分割
+	 *
+	 * @param value
+	 * @return 空要素を除いた値の配列
+	 */
+	private String[] split(String value) {
+		if (value == null || value.isBlank()) {
+			return new String[0];
+		}
+		return Arrays.stream(value.split(",")).map(String::trim)
+				.filter(s -> !s.isEmpty()).toArray(String[]::new);
+	}
+
+}
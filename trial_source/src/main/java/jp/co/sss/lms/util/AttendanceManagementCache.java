@@ -0,0 +1,189 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jp.co.sss.lms.dto.AttendanceManagementDto;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+
+/**
+ * 勤怠一覧キャッシュ<br>
+ * 受講生ごとに、コースの研修日（セクション）と勤怠情報を結合した勤怠一覧を研修日順に保持する。
+ * 出退勤では該当研修日の行のみを再取得して差し替え、コース全体の再取得を行わない。
+ * 直接編集などで複数日を更新した場合は{@link #evict(Integer)}で破棄すること。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class AttendanceManagementCache {
+
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+
+	/** 保持時間（秒） */
+	@Value("${setting.attendance.management.cache.second:600}")
+	private long cacheSecond;
+	/** 上限件数 */
+	@Value("${setting.attendance.management.cache.size:10000}")
+	private int cacheSize;
+
+	/** LMSユーザーIDと勤怠一覧 */
+	private final ConcurrentHashMap<Integer, Entry> userMap = new ConcurrentHashMap<>();
+	/** キャッシュヒット件数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** キャッシュミス件数 */
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * 勤怠一覧（変更時は複製して差し替える）
+	 */
+	private static final class Entry {
+		/** コースID */
+		private final Integer courseId;
+		/** 勤怠一覧（研修日順） */
+		private final List<AttendanceManagementDto> rows;
+		/** 有効期限（エポックミリ秒） */
+		private final long expireTime;
+
+		private Entry(Integer courseId, List<AttendanceManagementDto> rows, long expireTime) {
+			this.courseId = courseId;
+			this.rows = rows;
+			this.expireTime = expireTime;
+		}
+
+		private boolean isValid(Integer courseId) {
+			return this.courseId.equals(courseId) && expireTime > System.currentTimeMillis();
+		}
+	}
+
+	/**
+	 * 勤怠一覧の取得
+	 *
+	 * @param courseId
+	 * @param lmsUserId
+	 * @return 勤怠一覧の複製
+	 */
+	public List<AttendanceManagementDto> getList(Integer courseId, Integer lmsUserId) {
+		Entry entry = userMap.get(lmsUserId);
+		if (entry != null && entry.isValid(courseId)) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+			if (userMap.size() >= cacheSize) {
+				// 上限を超えた場合は一括で破棄する
+				userMap.clear();
+			}
+			// 同一ユーザーの読込は差し替え・破棄と排他する
+			entry = userMap.compute(lmsUserId,
+					(key, current) -> current != null && current.isValid(courseId)
+							? current
+							: new Entry(courseId,
+									tStudentAttendanceMapper.getAttendanceManagement(courseId, key,
+											Constants.DB_FLG_FALSE, null),
+									System.currentTimeMillis() + cacheSecond * 1000L));
+		}
+		return copy(entry.rows);
+	}
+
+	/**
+	 * 研修日単位の再取得<br>
+	 * 保持している勤怠一覧のうち、指定した研修日の行（同日の複数セクションを含む）をDBから再取得して差し替える。
+	 *
+	 * @param courseId
+	 * @param lmsUserId
+	 * @param trainingDate
+	 */
+	public void refresh(Integer courseId, Integer lmsUserId, Date trainingDate) {
+		long date = trainingDate.getTime();
+		userMap.computeIfPresent(lmsUserId, (key, current) -> {
+			if (!current.isValid(courseId)) {
+				return null;
+			}
+			List<AttendanceManagementDto> refreshedRows = tStudentAttendanceMapper
+					.getAttendanceManagement(courseId, key, Constants.DB_FLG_FALSE, trainingDate);
+			// 該当日の行を取得順のまま一括で差し替える
+			List<AttendanceManagementDto> rows = new ArrayList<>(
+					current.rows.size() + refreshedRows.size());
+			boolean replaced = false;
+			for (AttendanceManagementDto dto : current.rows) {
+				if (dto.getTrainingDate() == null || dto.getTrainingDate().getTime() != date) {
+					rows.add(dto);
+				} else if (!replaced) {
+					rows.addAll(refreshedRows);
+					replaced = true;
+				}
+			}
+			if (!replaced && !refreshedRows.isEmpty()) {
+				// 保持していない研修日の場合は次回参照時に全件を読み込む
+				return null;
+			}
+			return new Entry(courseId, rows, current.expireTime);
+		});
+	}
+
+	/**
+	 * ユーザー単位の破棄<br>
+	 * トランザクション中の場合はコミット後にも再度破棄する。
+	 *
+	 * @param lmsUserId
+	 */
+	public void evict(Integer lmsUserId) {
+		if (lmsUserId == null) {
+			return;
+		}
+		userMap.remove(lmsUserId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					userMap.remove(lmsUserId);
+				}
+			});
+		}
+	}
+
+	/**
+	 * キャッシュヒット件数の取得
+	 *
+	 * @return キャッシュヒット件数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * キャッシュミス件数の取得
+	 *
+	 * @return キャッシュミス件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 呼び出し元での変更がキャッシュに影響しないよう複製する
+	 *
+	 * @param rows
+	 * @return 複製
+	 */
+	private List<AttendanceManagementDto> copy(List<AttendanceManagementDto> rows) {
+		List<AttendanceManagementDto> result = new ArrayList<>(rows.size());
+		for (AttendanceManagementDto dto : rows) {
+			AttendanceManagementDto copied = new AttendanceManagementDto();
+			BeanUtils.copyProperties(dto, copied);
+			result.add(copied);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,198 @@
+package jp.co.sss.lms.util;
+
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+
+/**
+ * 勤怠未入力日キャッシュ<br>
+ * 受講生ごとに、欠席以外で出勤時刻または退勤時刻が未入力の研修日を保持する。
+ * 初回のみDBから読み込み、以降は勤怠情報の登録・更新時に該当日だけを反映するため、
+ * 過去日未入力の有無は保持している最も古い未入力日と本日の比較のみで判定できる。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class AttendanceNotEnteredCache {
+
+	@Autowired
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Autowired
+	private DateUtil dateUtil;
+
+	/** 保持時間（秒） */
+	@Value("${setting.attendance.not.entered.cache.second:3600}")
+	private long cacheSecond;
+	/** 上限件数 */
+	@Value("${setting.attendance.not.entered.cache.size:10000}")
+	private int cacheSize;
+
+	/** LMSユーザーIDと未入力日 */
+	private final ConcurrentHashMap<Integer, NotEnteredEntry> userMap = new ConcurrentHashMap<>();
+	/** キャッシュヒット件数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** キャッシュミス件数 */
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * 未入力日（変更時は複製して差し替える）
+	 */
+	private static final class NotEnteredEntry {
+		/** 未入力の研修日（エポックミリ秒） */
+		private final TreeSet<Long> dates;
+		/** 最も古い未入力日（ない場合Long.MAX_VALUE） */
+		private final long firstDate;
+		/** 有効期限（エポックミリ秒） */
+		private final long expireTime;
+
+		private NotEnteredEntry(TreeSet<Long> dates, long expireTime) {
+			this.dates = dates;
+			this.firstDate = dates.isEmpty() ? Long.MAX_VALUE : dates.first();
+			this.expireTime = expireTime;
+		}
+	}
+
+	/**
+	 * 過去日の勤怠未入力有無
+	 *
+	 * @param lmsUserId
+	 * @param today     本日の研修日
+	 * @return 本日より前に未入力の研修日がある場合true
+	 */
+	public boolean hasNotEnteredBefore(Integer lmsUserId, Date today) {
+		NotEnteredEntry entry = userMap.get(lmsUserId);
+		if (entry != null && entry.expireTime > System.currentTimeMillis()) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+			if (userMap.size() >= cacheSize) {
+				// 上限を超えた場合は一括で破棄する
+				userMap.clear();
+			}
+			// 同一ユーザーの読込は反映処理と排他する
+			entry = userMap.compute(lmsUserId,
+					(key, current) -> current != null && current.expireTime > System.currentTimeMillis()
+							? current
+							: load(key));
+		}
+		return entry.firstDate < dateUtil.getDateWithoutTime(today).getTime();
+	}
+
+	/**
+	 * 勤怠情報の登録・更新の反映<br>
+	 * トランザクション中の場合はコミット後に反映する。未読込のユーザーは次回参照時に読み込む。
+	 *
+	 * @param lmsUserId
+	 * @param tStudentAttendanceList 登録・更新した勤怠情報
+	 */
+	public void apply(Integer lmsUserId, List<TStudentAttendance> tStudentAttendanceList) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					applyNow(lmsUserId, tStudentAttendanceList);
+				}
+			});
+		} else {
+			applyNow(lmsUserId, tStudentAttendanceList);
+		}
+	}
+
+	/**
+	 * ユーザー単位の破棄
+	 *
+	 * @param lmsUserId
+	 */
+	public void evict(Integer lmsUserId) {
+		if (lmsUserId != null) {
+			userMap.remove(lmsUserId);
+		}
+	}
+
+	/**
+	 * キャッシュヒット件数の取得
+	 *
+	 * @return キャッシュヒット件数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * キャッシュミス件数の取得
+	 *
+	 * @return キャッシュミス件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 勤怠情報の即時反映
+	 *
+	 * @param lmsUserId
+	 * @param tStudentAttendanceList
+	 */
+	private void applyNow(Integer lmsUserId, List<TStudentAttendance> tStudentAttendanceList) {
+		userMap.computeIfPresent(lmsUserId, (key, current) -> {
+			TreeSet<Long> dates = new TreeSet<>(current.dates);
+			for (TStudentAttendance tStudentAttendance : tStudentAttendanceList) {
+				long trainingDate = dateUtil.getDateWithoutTime(tStudentAttendance.getTrainingDate())
+						.getTime();
+				if (isNotEntered(tStudentAttendance)) {
+					dates.add(trainingDate);
+				} else {
+					dates.remove(trainingDate);
+				}
+			}
+			return new NotEnteredEntry(dates, current.expireTime);
+		});
+	}
+
+	/**
+	 * 未入力判定（getNotEnteredTrainingDateListの条件と同一）
+	 *
+	 * @param tStudentAttendance
+	 * @return 欠席以外で出勤時刻または退勤時刻が未入力の場合true
+	 */
+	private boolean isNotEntered(TStudentAttendance tStudentAttendance) {
+		if (tStudentAttendance.getDeleteFlg() == null
+				|| tStudentAttendance.getDeleteFlg() != Constants.DB_FLG_FALSE
+				|| tStudentAttendance.getStatus() == null
+				|| AttendanceStatusEnum.ABSENT.code.equals(tStudentAttendance.getStatus())) {
+			return false;
+		}
+		return tStudentAttendance.getTrainingStartTime() == null
+				|| tStudentAttendance.getTrainingStartTime().isEmpty()
+				|| tStudentAttendance.getTrainingEndTime() == null
+				|| tStudentAttendance.getTrainingEndTime().isEmpty();
+	}
+
+	/**
+	 * 未入力日の読込
+	 *
+	 * @param lmsUserId
+	 * @return 未入力日
+	 */
+	private NotEnteredEntry load(Integer lmsUserId) {
+		TreeSet<Long> dates = new TreeSet<>();
+		for (Date trainingDate : tStudentAttendanceMapper.getNotEnteredTrainingDateList(lmsUserId,
+				Constants.DB_FLG_FALSE)) {
+			dates.add(dateUtil.getDateWithoutTime(trainingDate).getTime());
+		}
+		return new NotEnteredEntry(dates, System.currentTimeMillis() + cacheSecond * 1000L);
+	}
+
+}
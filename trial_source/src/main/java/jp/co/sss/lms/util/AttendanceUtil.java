@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.enums.AttendanceStatusEnum;
-import jp.co.sss.lms.mapper.MSectionMapper;
 
 /**
  * 勤怠管理のユーティリティクラス
@@ -21,7 +20,7 @@ public class AttendanceUtil {
 	@Autowired
 	private DateUtil dateUtil;
 	@Autowired
-	private MSectionMapper mSectionMapper;
+	private CourseCache courseCache;
 
 	/**
 	 * SSS定時・出退勤時間を元に、遅刻早退を判定をする
@@ -82,7 +81,7 @@ public class AttendanceUtil {
 	public TrainingTime calcBlankTime(int min) {
 		int hour = min / 60;
 		int minute = min % 60;
-		TrainingTime total = new TrainingTime(hour, minute);
+		TrainingTime total = TrainingTime.of(hour, minute);
 		return total;
 	}
 
@@ -140,11 +139,7 @@ public class AttendanceUtil {
 	 * @return 判定結果
 	 */
 	public boolean isWorkDay(Integer courseId, Date trainingDate) {
-		Integer count = mSectionMapper.getSectionCountByCourseId(courseId, trainingDate);
-		if (count > 0) {
-			return true;
-		}
-		return false;
+		return courseCache.isSectionDate(courseId, trainingDate);
 	}
 
 	/**
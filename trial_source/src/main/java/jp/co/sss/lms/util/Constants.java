@@ -77,6 +77,8 @@ public interface Constants {
 	public static final String VALID_KEY_ATTENDANCE_REPORT_REQUIRED = "attendance.report.required";
 	public static final String VALID_KEY_ATTENDANCE_COMPANY_JOSEIKININFOISNOTEXISTS = "attendance.company.joseiKinInfoIsNotExists";
 	public static final String VALID_KEY_ATTENDANCE_BLANKTIMEERROR = "attendance.blankTimeError";
+	public static final String VALID_KEY_ATTENDANCE_CSVUPLOAD_FILEFORMAT = "attendance.csvUpload.fileFormat";
+	public static final String VALID_KEY_ATTENDANCE_CSVUPLOAD_INVALID = "attendance.csvUpload.invalid";
 	public static final String VALID_KEY_SKILLSHEET_NOTRECENT = "skillsheet.notrecent";
 	public static final String VALID_KEY_UNQ_COMPANYCOURSE = "unq.companyCourse";
 	public static final String VALID_KEY_NOT_LATEST = "not.latest";
@@ -227,6 +229,13 @@ public interface Constants {
 	/** 契約書同意フラグ（同意済み） **/
 	public static final Short CODE_VAL_CONTRACT_AGREE = 1;
 
+	/** メール送信状態（未送信） */
+	public static final Short CODE_VAL_MAIL_SEND_STATUS_UNSENT = 0;
+	/** メール送信状態（送信済み） */
+	public static final Short CODE_VAL_MAIL_SEND_STATUS_SENT = 1;
+	/** メール送信状態（送信失敗） */
+	public static final Short CODE_VAL_MAIL_SEND_STATUS_FAILED = 9;
+
 	/** エントリーメールフラグ */
 	public static final Short CODE_VAL_ENTRY_MAIL_FLG_ON = 1;
 	public static final Short CODE_VAL_ENTRY_MAIL_FLG_OFF = 0;
@@ -276,13 +285,13 @@ public interface Constants {
 	public static final int SELECT_MAX_LENGTH = 70;
 
 	/** システムシェアード定時開始 */
-	public static final TrainingTime SSS_WORK_START_TIME = new TrainingTime("09:00");
+	public static final TrainingTime SSS_WORK_START_TIME = TrainingTime.parse("09:00");
 	/** システムシェアード定時終了 */
-	public static final TrainingTime SSS_WORK_END_TIME = new TrainingTime("18:00");
+	public static final TrainingTime SSS_WORK_END_TIME = TrainingTime.parse("18:00");
 	/** システムシェアード休憩開始 */
-	public static final TrainingTime SSS_REST_START_TIME = new TrainingTime("12:00");
+	public static final TrainingTime SSS_REST_START_TIME = TrainingTime.parse("12:00");
 	/** システムシェアード休憩終了 */
-	public static final TrainingTime SSS_REST_END_TIME = new TrainingTime("13:00");
+	public static final TrainingTime SSS_REST_END_TIME = TrainingTime.parse("13:00");
 
 	/** 勤怠タイプ：出勤 */
 	public static final short CODE_VAL_ATWORK = 0;
@@ -358,6 +367,9 @@ public interface Constants {
 
 	/** パスワードリセットURL（埋め込み文字） */
 	public static final String REPLACE_CHAR_RESET_PASSWORD_URL = ":url:";
+	public static final String REPLACE_CHAR_MAIL_ADDRESS = ":mail_address:";
+	public static final String REPLACE_CHAR_SUBJECT = ":subject:";
+	public static final String REPLACE_CHAR_QUE_CREATE_DATE = ":que_create_date:";
 
 	/** 管理者フラグ */
 	public static final Short ADMIN_FLG_FALSE = 0;
@@ -0,0 +1,140 @@
+package jp.co.sss.lms.util;
+
+import java.util.Arrays;
+
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+
+/**
+ * コース勤怠集計<br>
+ * 受講生×研修日の勤怠ステータスと、受講生ごとの遅刻・早退・欠席・未入力件数、中抜け時間合計を
+ * プリミティブ配列で集計する。検索結果を1件ずつ受け取るため、勤怠情報の一覧は保持しない。
+ * 1回の集計ごとに生成し、スレッド間で共有しないこと。
+ *
+ * @author 東京ITスクール
+ */
+public class CourseAttendanceAggregator implements ResultHandler<TStudentAttendance> {
+
+	/** 勤怠情報なし */
+	public static final byte STATUS_NO_RECORD = -1;
+	/** 出勤時刻または退勤時刻が未入力 */
+	public static final byte STATUS_NOT_ENTERED = -2;
+
+	/** 受講生のLMSユーザーID（昇順） */
+	private final int[] lmsUserIds;
+	/** 研修日（エポックミリ秒、昇順） */
+	private final long[] trainingDates;
+	/** ステータス（受講生×研修日） */
+	private final byte[] statuses;
+	/** 遅刻回数 */
+	private final int[] tardyCounts;
+	/** 早退回数 */
+	private final int[] leavingEarlyCounts;
+	/** 欠席回数 */
+	private final int[] absentCounts;
+	/** 未入力日数 */
+	private final int[] notEnteredCounts;
+	/** 中抜け時間合計（分） */
+	private final int[] blankTimeTotals;
+
+	/**
+	 * @param lmsUserIds    受講生のLMSユーザーID（昇順）
+	 * @param trainingDates 研修日（エポックミリ秒、昇順）
+	 */
+	public CourseAttendanceAggregator(int[] lmsUserIds, long[] trainingDates) {
+		this.lmsUserIds = lmsUserIds;
+		this.trainingDates = trainingDates;
+		this.statuses = new byte[lmsUserIds.length * trainingDates.length];
+		Arrays.fill(statuses, STATUS_NO_RECORD);
+		this.tardyCounts = new int[lmsUserIds.length];
+		this.leavingEarlyCounts = new int[lmsUserIds.length];
+		this.absentCounts = new int[lmsUserIds.length];
+		this.notEnteredCounts = new int[lmsUserIds.length];
+		this.blankTimeTotals = new int[lmsUserIds.length];
+	}
+
+	/**
+	 * 勤怠情報1件の集計（研修日以外・対象外の受講生は読み飛ばす）
+	 */
+	@Override
+	public void handleResult(ResultContext<? extends TStudentAttendance> resultContext) {
+		TStudentAttendance tStudentAttendance = resultContext.getResultObject();
+		int student = Arrays.binarySearch(lmsUserIds, tStudentAttendance.getLmsUserId());
+		int day = Arrays.binarySearch(trainingDates, tStudentAttendance.getTrainingDate().getTime());
+		if (student < 0 || day < 0) {
+			return;
+		}
+		int index = student * trainingDates.length + day;
+		if (statuses[index] != STATUS_NO_RECORD) {
+			return;
+		}
+		Short status = tStudentAttendance.getStatus();
+		if (AttendanceStatusEnum.ABSENT.code.equals(status)) {
+			statuses[index] = AttendanceStatusEnum.ABSENT.code.byteValue();
+			absentCounts[student]++;
+		} else if (isEmpty(tStudentAttendance.getTrainingStartTime())
+				|| isEmpty(tStudentAttendance.getTrainingEndTime())) {
+			statuses[index] = STATUS_NOT_ENTERED;
+			notEnteredCounts[student]++;
+		} else {
+			statuses[index] = status == null ? AttendanceStatusEnum.NONE.code.byteValue()
+					: status.byteValue();
+			if (AttendanceStatusEnum.TARDY.code.equals(status)
+					|| AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY.code.equals(status)) {
+				tardyCounts[student]++;
+			}
+			if (AttendanceStatusEnum.LEAVING_EARLY.code.equals(status)
+					|| AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY.code.equals(status)) {
+				leavingEarlyCounts[student]++;
+			}
+		}
+		if (tStudentAttendance.getBlankTime() != null) {
+			blankTimeTotals[student] += tStudentAttendance.getBlankTime();
+		}
+	}
+
+	/**
+	 * ステータスの取得
+	 *
+	 * @param student 受講生の添字
+	 * @param day     研修日の添字
+	 * @return 勤怠状態コード、{@link #STATUS_NO_RECORD}または{@link #STATUS_NOT_ENTERED}
+	 */
+	public byte getStatus(int student, int day) {
+		return statuses[student * trainingDates.length + day];
+	}
+
+	public int getTardyCount(int student) {
+		return tardyCounts[student];
+	}
+
+	public int getLeavingEarlyCount(int student) {
+		return leavingEarlyCounts[student];
+	}
+
+	public int getAbsentCount(int student) {
+		return absentCounts[student];
+	}
+
+	public int getNotEnteredCount(int student) {
+		return notEnteredCounts[student];
+	}
+
+	public int getBlankTimeTotal(int student) {
+		return blankTimeTotals[student];
+	}
+
+	/**
+	 * 時刻の未入力判定
+	 *
+	 * @param time
+	 * @return 未入力の場合true
+	 */
+	private boolean isEmpty(String time) {
+		return time == null || time.isEmpty();
+	}
+
+}
@@ -0,0 +1,202 @@
+package jp.co.sss.lms.util;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.dto.CourseServiceCourseDto;
+import jp.co.sss.lms.mapper.MCourseMapper;
+import jp.co.sss.lms.mapper.MSectionMapper;
+
+/**
+ * コース構成キャッシュ<br>
+ * コースの存在有無・コース詳細（カテゴリ・セクション）・セクション日付（研修日カレンダー）をコースID単位で保持する。
+ * 同じコースの受講生で共有し、同一コースの読込は同時に1回だけ行う。
+ * セクションを変更した場合は{@link #evict(Integer)}で破棄すること。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class CourseCache {
+
+	@Autowired
+	private MCourseMapper mCourseMapper;
+	@Autowired
+	private MSectionMapper mSectionMapper;
+
+	/** 保持時間（秒） */
+	@Value("${setting.course.cache.second:600}")
+	private long cacheSecond;
+	/** 上限件数 */
+	@Value("${setting.course.cache.size:1000}")
+	private int cacheSize;
+
+	/** コースIDとコース構成 */
+	private final ConcurrentHashMap<Integer, CourseEntry> courseMap = new ConcurrentHashMap<>();
+	/** キャッシュヒット件数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** キャッシュミス件数 */
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * コース構成
+	 */
+	private static final class CourseEntry {
+		/** コースが存在するか */
+		private final boolean exists;
+		/** コース詳細（セクションがない場合null） */
+		private final CourseServiceCourseDto courseDetail;
+		/** セクション日付（エポックミリ秒） */
+		private final Set<Long> sectionDates;
+		/** セクション日付（エポックミリ秒、昇順） */
+		private final long[] sortedSectionDates;
+		/** 有効期限（エポックミリ秒） */
+		private final long expireTime;
+
+		private CourseEntry(boolean exists, CourseServiceCourseDto courseDetail, Set<Long> sectionDates,
+				long expireTime) {
+			this.exists = exists;
+			this.courseDetail = courseDetail;
+			this.sectionDates = sectionDates;
+			this.sortedSectionDates = sectionDates.stream().mapToLong(Long::longValue).sorted().toArray();
+			this.expireTime = expireTime;
+		}
+	}
+
+	/**
+	 * コースの存在確認
+	 *
+	 * @param courseId
+	 * @return 削除されていないコースが存在する場合true
+	 */
+	public boolean exists(Integer courseId) {
+		return courseId != null && getEntry(courseId).exists;
+	}
+
+	/**
+	 * コース詳細の取得<br>
+	 * 返却値は受講生間で共有するため、呼び出し元で変更しないこと。
+	 *
+	 * @param courseId
+	 * @return コース詳細（存在しない場合null）
+	 */
+	public CourseServiceCourseDto getCourseDetail(Integer courseId) {
+		return courseId == null ? null : getEntry(courseId).courseDetail;
+	}
+
+	/**
+	 * セクションが設定された日付か判定
+	 *
+	 * @param courseId
+	 * @param date
+	 * @return セクションが設定された日付の場合true
+	 */
+	public boolean isSectionDate(Integer courseId, Date date) {
+		if (courseId == null || date == null) {
+			return false;
+		}
+		return getEntry(courseId).sectionDates.contains(date.getTime());
+	}
+
+	/**
+	 * セクション日付の取得
+	 *
+	 * @param courseId
+	 * @return セクションが設定された日付（エポックミリ秒、昇順）の複製
+	 */
+	public long[] getSectionDates(Integer courseId) {
+		if (courseId == null) {
+			return new long[0];
+		}
+		return getEntry(courseId).sortedSectionDates.clone();
+	}
+
+	/**
+	 * コース単位の破棄
+	 *
+	 * @param courseId
+	 */
+	public void evict(Integer courseId) {
+		if (courseId != null) {
+			courseMap.remove(courseId);
+		}
+	}
+
+	/**
+	 * キャッシュの破棄
+	 */
+	public void clear() {
+		courseMap.clear();
+	}
+
+	/**
+	 * キャッシュヒット件数の取得
+	 *
+	 * @return キャッシュヒット件数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * キャッシュミス件数の取得
+	 *
+	 * @return キャッシュミス件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 有効なコース構成の取得（ない場合は読込）
+	 *
+	 * @param courseId
+	 * @return コース構成
+	 */
+	private CourseEntry getEntry(Integer courseId) {
+		CourseEntry entry = courseMap.get(courseId);
+		if (entry != null && entry.expireTime > System.currentTimeMillis()) {
+			hitCount.incrementAndGet();
+			return entry;
+		}
+		missCount.incrementAndGet();
+		if (courseMap.size() >= cacheSize) {
+			// 上限を超えた場合は一括で破棄する
+			courseMap.clear();
+		}
+		// 同一コースの同時読込は1回にまとめる（破棄とも排他される）
+		return courseMap.compute(courseId,
+				(key, current) -> current != null && current.expireTime > System.currentTimeMillis()
+						? current
+						: load(key));
+	}
+
+	/**
+	 * コース構成の読込
+	 *
+	 * @param courseId
+	 * @return コース構成
+	 */
+	private CourseEntry load(Integer courseId) {
+		boolean exists = mCourseMapper.getCourseCount(courseId) > 0;
+		CourseServiceCourseDto courseDetail = mCourseMapper.getCourseDetail(courseId,
+				Constants.DB_FLG_FALSE);
+		List<Date> dateList = mSectionMapper.getSectionDateListByCourseId(courseId);
+		Set<Long> sectionDates = new HashSet<>(dateList.size() * 2);
+		for (Date date : dateList) {
+			if (date != null) {
+				sectionDates.add(date.getTime());
+			}
+		}
+		return new CourseEntry(exists, courseDetail, sectionDates,
+				System.currentTimeMillis() + cacheSecond * 1000L);
+	}
+
+}
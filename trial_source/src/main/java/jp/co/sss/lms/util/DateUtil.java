@@ -3,6 +3,9 @@ package jp.co.sss.lms.util;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -701,4 +704,27 @@ public class DateUtil {
 		throw new IllegalStateException();
 	}
 
+	/**
+	 * パスワード有効期限の取得<br>
+	 * 秒単位に切り捨てた現在日時の1ヶ月前がパスワード変更日時を過ぎた時点を有効期限とする。
+	 * 1ヶ月後の同日が存在しない場合は翌々月の1日0時とする。
+	 * 
+	 * @param passwordChangeDate パスワード変更日時
+	 * @return 有効期限（エポックミリ秒、変更日時がない場合は0）
+	 */
+	public long getPasswordExpireTime(Date passwordChangeDate) {
+		if (passwordChangeDate == null) {
+			return 0L;
+		}
+		ZoneId zone = ZoneId.systemDefault();
+		// 変更日時より後の最初の秒
+		LocalDateTime next = LocalDateTime.ofInstant(passwordChangeDate.toInstant(), zone)
+				.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+		LocalDateTime expire = next.plusMonths(1);
+		if (expire.getDayOfMonth() != next.getDayOfMonth()) {
+			expire = expire.toLocalDate().plusDays(1).atStartOfDay();
+		}
+		return expire.atZone(zone).toInstant().toEpochMilli();
+	}
+
 }
@@ -0,0 +1,92 @@
+package jp.co.sss.lms.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Excelテンプレートキャッシュ<br>
+ * テンプレートファイルをクラスパスから一度だけ読み込んでバイト列で保持し、
+ * 利用のたびにメモリ上のバイト列から新しいワークブックを生成する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class ExcelTemplateCache {
+
+	/** テンプレートファイルのパスとバイト列 */
+	private final ConcurrentHashMap<String, byte[]> templateMap = new ConcurrentHashMap<>();
+	/** キャッシュヒット件数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** キャッシュミス件数 */
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * テンプレートからワークブックを生成
+	 * 
+	 * @param filePath クラスパス上のテンプレートファイルのパス
+	 * @return 呼び出しごとに独立したワークブック
+	 */
+	public Workbook open(String filePath) {
+		byte[] template = templateMap.get(filePath);
+		if (template != null) {
+			hitCount.incrementAndGet();
+		} else {
+			missCount.incrementAndGet();
+			template = templateMap.computeIfAbsent(filePath, this::load);
+		}
+		try (InputStream in = new ByteArrayInputStream(template)) {
+			return WorkbookFactory.create(in);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * キャッシュの破棄（テンプレートファイル差し替え時に使用）
+	 */
+	public void clear() {
+		templateMap.clear();
+	}
+
+	/**
+	 * キャッシュヒット件数の取得
+	 * 
+	 * @return キャッシュヒット件数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * キャッシュミス件数の取得
+	 * 
+	 * @return キャッシュミス件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * テンプレートファイルの読込
+	 * 
+	 * @param filePath
+	 * @return テンプレートファイルのバイト列
+	 */
+	private byte[] load(String filePath) {
+		try (InputStream in = new ClassPathResource(filePath).getInputStream()) {
+			return StreamUtils.copyToByteArray(in);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -1,13 +1,14 @@
 package jp.co.sss.lms.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -60,6 +61,15 @@ public class ExcelUtil {
 		}
 	}
 
+	/**
+	 * 生成済みのワークブックを扱う
+	 * 
+	 * @param wb
+	 */
+	public ExcelUtil(Workbook wb) {
+		this.wb = wb;
+	}
+
 	/**
 	 * 作成済みのファイルを開く
 	 * 
@@ -269,34 +279,7 @@ public class ExcelUtil {
 	 */
 	public static void downloadBookInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
-		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
-			for (WorkbookDto workbookDto : workbookDtoList) {
-
-				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
-
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = "レポート";
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
-
-				zos.putNextEntry(new ZipEntry(wbName));
-				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
-				zos.closeEntry();
-			}
-		}
+		writeBooksInZip("レポート", workbookDtoList, response);
 	}
 
 	/**
@@ -308,31 +291,29 @@ public class ExcelUtil {
 	 */
 	public static void downloadReportInZip(List<WorkbookDto> workbookDtoList, HttpServletResponse response)
 			throws IOException {
+		writeBooksInZip(messageUtil.getMessage("dailyReportId"), workbookDtoList, response);
+	}
+
+	/**
+	 * 生成済みのWorkbookをZIPエントリへ直接書き込む
+	 * 
+	 * @param zipName
+	 * @param workbookDtoList
+	 * @param response
+	 * @throws IOException
+	 */
+	private static void writeBooksInZip(String zipName, List<WorkbookDto> workbookDtoList,
+			HttpServletResponse response) throws IOException {
+		String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
+		fileName += ".zip";
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
 		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(), Charset.forName("MS932"))) {
-			List<String> wbNameList = new ArrayList<String>();
+			OutputStream entryOut = new WorkbookZipWriter.EntryOutputStream(zos);
+			Set<String> wbNameSet = new HashSet<String>();
 			for (WorkbookDto workbookDto : workbookDtoList) {
-
-				// もし、同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
-				int count = 1;
-				String wbName = workbookDto.getWbName();
-				while (wbNameList.contains(wbName)) {
-					String prefix = FileUtil.getPrefix(workbookDto.getWbName());
-					String suffix = FileUtil.getSuffix(workbookDto.getWbName());
-					wbName = prefix + "(" + count + ")." + suffix;
-					count++;
-				}
-				wbNameList.add(wbName);
-
-				ByteArrayOutputStream baos = new ByteArrayOutputStream();
-				String zipName = messageUtil.getMessage("dailyReportId");
-				String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"), "ISO-8859-1");
-				fileName += ".zip";
-				response.setContentType("application/octet-stream");
-				response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
-				workbookDto.getWb().write(baos);
-
-				zos.putNextEntry(new ZipEntry(wbName));
-				zos.write(baos.toByteArray(), 0, baos.toByteArray().length);
+				zos.putNextEntry(new ZipEntry(WorkbookZipWriter.getUniqueName(workbookDto.getWbName(), wbNameSet)));
+				workbookDto.getWb().write(entryOut);
 				zos.closeEntry();
 			}
 		}
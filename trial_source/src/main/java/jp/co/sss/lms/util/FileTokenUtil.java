@@ -0,0 +1,164 @@
+package jp.co.sss.lms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * ファイルトークンユーティリティ<br>
+ * 画面に出力するファイルIDを、ユーザーごとに異なるトークン（HMAC-SHA256）に置き換える。
+ * 発行したトークンはキャッシュし、トークンからファイルIDへの逆引きを定数時間で行う。
+ * 逆引きしたファイルIDは、要求したユーザーのトークンを再計算して一致する場合のみ返却する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class FileTokenUtil {
+
+	/** MACアルゴリズム */
+	private static final String MAC_ALGORITHM = "HmacSHA256";
+	/** トークンに使用するMACのバイト数 */
+	private static final int TOKEN_BYTES = 16;
+	/** 16進数文字 */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/** MAC鍵（未設定の場合は起動ごとに生成） */
+	@Value("${setting.file.token.key:}")
+	private String tokenKey;
+	/** キャッシュ上限件数 */
+	@Value("${setting.file.token.cache.size:100000}")
+	private int cacheSize;
+
+	/** MAC鍵 */
+	private SecretKeySpec keySpec;
+	/** スレッドごとのMAC */
+	private final ThreadLocal<Mac> macHolder = ThreadLocal.withInitial(this::createMac);
+	/** （ユーザーID:ファイルID）からトークンへのキャッシュ */
+	private final ConcurrentHashMap<String, String> tokenMap = new ConcurrentHashMap<>();
+	/** トークンからファイルIDへのキャッシュ（上限を超えた場合は最も古く参照されたものから破棄する） */
+	private final Map<String, Integer> fileIdMap = Collections
+			.synchronizedMap(new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+					return size() > cacheSize;
+				}
+			});
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * MAC鍵の初期化
+	 */
+	@PostConstruct
+	public void init() {
+		byte[] key;
+		if (StringUtils.isEmpty(tokenKey)) {
+			key = new byte[32];
+			new SecureRandom().nextBytes(key);
+			logger.info("ファイルトークン鍵が未設定のため、起動ごとの鍵を使用します");
+		} else {
+			key = tokenKey.getBytes(StandardCharsets.UTF_8);
+		}
+		keySpec = new SecretKeySpec(key, MAC_ALGORITHM);
+	}
+
+	/**
+	 * ファイルトークンの取得
+	 * 
+	 * @param fileId
+	 * @param userId
+	 * @return ファイルトークン
+	 */
+	public String getToken(String fileId, Integer userId) {
+		String key = userId + ":" + fileId;
+		String token = tokenMap.get(key);
+		if (token == null) {
+			token = createToken(key);
+			if (tokenMap.size() >= cacheSize) {
+				// 上限を超えた場合は一括で破棄する（再計算できるため逆引きは破棄しない）
+				tokenMap.clear();
+			}
+			tokenMap.put(key, token);
+		}
+		if (NumberUtils.isDigits(fileId)) {
+			// 画面に出力したトークンを最近参照したものとして逆引きに残す
+			fileIdMap.put(token, Integer.valueOf(fileId));
+		}
+		return token;
+	}
+
+	/**
+	 * ファイルトークンからファイルIDを取得
+	 * 
+	 * @param token
+	 * @param userId 要求したユーザーのユーザーID
+	 * @return ファイルID（発行済みのトークンでない、または他のユーザーのトークンの場合null）
+	 */
+	public Integer getFileId(String token, Integer userId) {
+		if (token == null || userId == null) {
+			return null;
+		}
+		Integer fileId = fileIdMap.get(token);
+		if (fileId == null) {
+			return null;
+		}
+		// 要求したユーザーに発行したトークンか検証する
+		String expected = getToken(String.valueOf(fileId), userId);
+		if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+				token.getBytes(StandardCharsets.US_ASCII))) {
+			return null;
+		}
+		return fileId;
+	}
+
+	/**
+	 * トークンの生成
+	 * 
+	 * @param key
+	 * @return MACの先頭を16進数で表した文字列
+	 */
+	private String createToken(String key) {
+		byte[] mac = macHolder.get().doFinal(key.getBytes(StandardCharsets.UTF_8));
+		char[] token = new char[TOKEN_BYTES * 2];
+		for (int i = 0; i < TOKEN_BYTES; i++) {
+			token[i * 2] = HEX[(mac[i] >> 4) & 0x0f];
+			token[i * 2 + 1] = HEX[mac[i] & 0x0f];
+		}
+		return new String(token);
+	}
+
+	/**
+	 * MACの生成
+	 * 
+	 * @return MAC
+	 */
+	private Mac createMac() {
+		try {
+			Mac mac = Mac.getInstance(MAC_ALGORITHM);
+			mac.init(keySpec);
+			return mac;
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
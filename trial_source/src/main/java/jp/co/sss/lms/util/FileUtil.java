@@ -2,9 +2,11 @@ package jp.co.sss.lms.util;
 
 import java.math.BigDecimal;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import jp.co.sss.lms.dto.FileDownloadDto;
+import jp.co.sss.lms.dto.LoginUserDto;
 
 /**
  * FileUtil<br>
@@ -24,8 +26,25 @@ public class FileUtil {
 	/** GB[1024MB] */
 	private static final Long GB = (long) MB * 1024;
 
+	@Autowired
+	private FileTokenUtil fileTokenUtil;
+	@Autowired
+	private LoginUserDto loginUserDto;
+
+	/**
+	 * ハッシュ化されたファイルIDから元のファイルIDを取得<br>
+	 * ファイルダウンロードDTOに無い場合は、ログインユーザーに発行したファイルトークンから逆引きする。
+	 * 
+	 * @param fileDownloadDto
+	 * @param hashedFileId
+	 * @return ファイルID
+	 */
 	public Integer getPlaneFileId(FileDownloadDto fileDownloadDto, String hashedFileId) {
-		return fileDownloadDto.getFileIdMap().get(hashedFileId);
+		Integer fileId = fileDownloadDto.getFileIdMap().get(hashedFileId);
+		if (fileId == null) {
+			fileId = fileTokenUtil.getFileId(hashedFileId, loginUserDto.getUserId());
+		}
+		return fileId;
 	}
 
 	/**
@@ -0,0 +1,73 @@
+package jp.co.sss.lms.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jp.co.sss.lms.mapper.TMailQueMapper;
+
+/**
+ * アプリケーションメトリクスの登録<br>
+ * メール送信キューの未送信件数と、各キャッシュのヒット・ミス件数を登録する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class LmsMeterBinder implements MeterBinder {
+
+	@Autowired
+	private TMailQueMapper tMailQueMapper;
+	@Autowired
+	private ExcelTemplateCache excelTemplateCache;
+	@Autowired
+	private LoginUserCache loginUserCache;
+	@Autowired
+	private CourseCache courseCache;
+	@Autowired
+	private AttendanceNotEnteredCache attendanceNotEnteredCache;
+	@Autowired
+	private AttendanceManagementCache attendanceManagementCache;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		// メール送信キューの未送信件数（取得のたびに集計する）
+		Gauge.builder("lms.mail.queue.depth", tMailQueMapper,
+				mapper -> mapper.countBySendStatus(Constants.CODE_VAL_MAIL_SEND_STATUS_UNSENT,
+						Constants.DB_FLG_FALSE))
+				.description("未送信のメール送信キュー件数")
+				.register(registry);
+
+		FunctionCounter.builder("lms.cache.gets", excelTemplateCache, ExcelTemplateCache::getHitCount)
+				.tags("cache", "excelTemplate", "result", "hit").register(registry);
+		FunctionCounter.builder("lms.cache.gets", excelTemplateCache, ExcelTemplateCache::getMissCount)
+				.tags("cache", "excelTemplate", "result", "miss").register(registry);
+
+		FunctionCounter.builder("lms.cache.gets", loginUserCache, LoginUserCache::getHitCount)
+				.tags("cache", "loginUser", "result", "hit").register(registry);
+		FunctionCounter.builder("lms.cache.gets", loginUserCache, LoginUserCache::getMissCount)
+				.tags("cache", "loginUser", "result", "miss").register(registry);
+		FunctionCounter.builder("lms.cache.gets", courseCache, CourseCache::getHitCount)
+				.tags("cache", "course", "result", "hit").register(registry);
+		FunctionCounter.builder("lms.cache.gets", courseCache, CourseCache::getMissCount)
+				.tags("cache", "course", "result", "miss").register(registry);
+		FunctionCounter.builder("lms.cache.gets", attendanceNotEnteredCache,
+				AttendanceNotEnteredCache::getHitCount)
+				.tags("cache", "attendanceNotEntered", "result", "hit").register(registry);
+		FunctionCounter.builder("lms.cache.gets", attendanceNotEnteredCache,
+				AttendanceNotEnteredCache::getMissCount)
+				.tags("cache", "attendanceNotEntered", "result", "miss").register(registry);
+		FunctionCounter.builder("lms.cache.gets", attendanceManagementCache,
+				AttendanceManagementCache::getHitCount)
+				.tags("cache", "attendanceManagement", "result", "hit").register(registry);
+		FunctionCounter.builder("lms.cache.gets", attendanceManagementCache,
+				AttendanceManagementCache::getMissCount)
+				.tags("cache", "attendanceManagement", "result", "miss").register(registry);
+		FunctionCounter.builder("lms.cache.load.seconds", loginUserCache,
+				cache -> cache.getLoadTimeNanos() / 1_000_000_000.0)
+				.tags("cache", "loginUser").register(registry);
+	}
+
+}
@@ -2,6 +2,7 @@ package jp.co.sss.lms.util;
 
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -35,6 +36,124 @@ public class LoggingUtil {
 		ROLE_MAP.put(Constants.CODE_VAL_ROLL_TRAINING, "育成担当者");
 	}
 
+	/**
+	 * アクセスログ（1リクエスト1行のJSON）の追加
+	 * 
+	 * @param sb
+	 * @param startTime      開始時刻（エポックミリ秒）
+	 * @param durationNanos  処理時間（ナノ秒）
+	 * @param status         ステータスコード
+	 * @param responseBytes  出力バイト数
+	 * @param paramMaxLength 入力情報を出力する場合は値ごとの最大文字数、出力しない場合は0
+	 */
+	public void appendAccessLog(StringBuilder sb, long startTime, long durationNanos, int status,
+			long responseBytes, int paramMaxLength) {
+		String uri = request.getRequestURI();
+		sb.append("{\"time\":").append(startTime);
+		appendJson(sb, "method", request.getMethod());
+		appendJson(sb, "route", uri.substring(Math.min(request.getContextPath().length(), uri.length())));
+		sb.append(",\"status\":").append(status);
+		sb.append(",\"durationMs\":").append(durationNanos / 1_000_000).append('.');
+		long micros = durationNanos / 1_000 % 1_000;
+		sb.append(micros < 10 ? "00" : micros < 100 ? "0" : "").append(micros);
+		sb.append(",\"requestBytes\":").append(Math.max(request.getContentLengthLong(), 0));
+		sb.append(",\"responseBytes\":").append(responseBytes);
+		if (loginUserDto != null && loginUserDto.getLmsUserId() != null) {
+			appendJson(sb, "role", loginUserDto.getRole());
+			sb.append(",\"lmsUserId\":").append(loginUserDto.getLmsUserId());
+		}
+		if (paramMaxLength > 0) {
+			sb.append(",\"params\":{");
+			boolean first = true;
+			for (Enumeration<String> paramNames = request.getParameterNames(); paramNames
+					.hasMoreElements();) {
+				String name = paramNames.nextElement();
+				if (!first) {
+					sb.append(',');
+				}
+				first = false;
+				appendJsonString(sb, name, Integer.MAX_VALUE);
+				sb.append(':');
+				if (isPasswordParam(name)) {
+					// パスワードは表示させない
+					sb.append("\"*****\"");
+				} else {
+					appendJsonString(sb, request.getParameter(name), paramMaxLength);
+				}
+			}
+			sb.append('}');
+		}
+		sb.append('}');
+	}
+
+	/**
+	 * パスワードのパラメータか判定（現在のパスワード・確認用を含む）
+	 * 
+	 * @param name パラメータ名
+	 * @return 名前に"password"を含む場合（大文字小文字を区別しない）true
+	 */
+	private boolean isPasswordParam(String name) {
+		return name.toLowerCase(Locale.ROOT).contains("password");
+	}
+
+	/**
+	 * JSONの文字列項目の追加
+	 * 
+	 * @param sb
+	 * @param key
+	 * @param value
+	 */
+	private void appendJson(StringBuilder sb, String key, String value) {
+		sb.append(",\"").append(key).append("\":");
+		appendJsonString(sb, value, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * JSON文字列の追加（最大文字数を超える部分は切り捨てる）
+	 * 
+	 * @param sb
+	 * @param value
+	 * @param maxLength
+	 */
+	private void appendJsonString(StringBuilder sb, String value, int maxLength) {
+		if (value == null) {
+			sb.append("null");
+			return;
+		}
+		int length = Math.min(value.length(), maxLength);
+		sb.append('"');
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				sb.append("\\\"");
+				break;
+			case '\\':
+				sb.append("\\\\");
+				break;
+			case '\n':
+				sb.append("\\n");
+				break;
+			case '\r':
+				sb.append("\\r");
+				break;
+			case '\t':
+				sb.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					sb.append(String.format("\\u%04x", (int) c));
+				} else {
+					sb.append(c);
+				}
+			}
+		}
+		if (length < value.length()) {
+			sb.append("...");
+		}
+		sb.append('"');
+	}
+
 	/**
 	 * ログの追加
 	 * 
@@ -61,7 +180,7 @@ public class LoggingUtil {
 				sb.append("\n[param]");
 				sb.append(name);
 				sb.append("=");
-				if (name.equals("password") || name.equals("passwordConfirm")) {
+				if (isPasswordParam(name)) {
 					// パスワードは表示させない
 					sb.append("*****************");
 				} else {
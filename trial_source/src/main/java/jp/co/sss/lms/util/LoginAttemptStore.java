@@ -0,0 +1,40 @@
+package jp.co.sss.lms.util;
+
+/**
+ * ログイン試行共有ストア<br>
+ * 複数ノード構成でログイン失敗回数とロック状態を共有するための保存先。
+ * Beanとして登録されている場合のみ{@link LoginAttemptTracker}から利用される。
+ *
+ * @author 東京ITスクール
+ */
+public interface LoginAttemptStore {
+
+	/**
+	 * ロック中判定
+	 *
+	 * @param key        試行キー
+	 * @param now        現在時刻（エポックミリ秒）
+	 * @param lockMillis ロック時間（ミリ秒）
+	 * @return ロック中の場合true
+	 */
+	boolean isLocked(String key, long now, long lockMillis);
+
+	/**
+	 * ログイン失敗の記録
+	 *
+	 * @param key          試行キー
+	 * @param now          現在時刻（エポックミリ秒）
+	 * @param windowMillis 失敗回数を数える期間（ミリ秒）
+	 * @param lockCount    ロックする失敗回数
+	 * @return この失敗でロックされた場合true
+	 */
+	boolean recordFailure(String key, long now, long windowMillis, int lockCount);
+
+	/**
+	 * 失敗回数とロック状態の破棄
+	 *
+	 * @param key 試行キー
+	 */
+	void reset(String key);
+
+}
@@ -0,0 +1,271 @@
+package jp.co.sss.lms.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ログイン試行トラッカー<br>
+ * ログインIDと接続元IPの組ごとに、直近のログイン失敗時刻をスライディングウィンドウで保持する。
+ * 規定時間内に規定回数失敗した組は規定時間ロックする。
+ * 保持領域はストライプ単位で排他し、共有ストアがBean登録されている場合はノード間で状態を共有する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class LoginAttemptTracker {
+
+	/** ストライプ数（2のべき乗） */
+	private static final int STRIPES = 64;
+	/** 期限切れエントリを掃除するストライプ内件数の下限 */
+	private static final int PURGE_THRESHOLD = 1024;
+
+	/** ロックする失敗回数 */
+	@Value("${setting.lock.count}")
+	private Integer lockCount;
+	/** 失敗回数を数える期間およびロック時間（分） */
+	@Value("${setting.lock.minute}")
+	private Integer lockMinute;
+
+	/** 共有ストア（任意） */
+	@Autowired(required = false)
+	private LoginAttemptStore loginAttemptStore;
+
+	/** ストライプ */
+	private final Stripe[] stripes = new Stripe[STRIPES];
+
+	public LoginAttemptTracker() {
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	/**
+	 * ロック中判定
+	 *
+	 * @param loginId
+	 * @param remoteAddr
+	 * @return ロック中の場合true
+	 */
+	public boolean isLocked(String loginId, String remoteAddr) {
+		String key = getKey(loginId, remoteAddr);
+		long now = System.currentTimeMillis();
+		long lockMillis = getWindowMillis();
+		Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			Attempt attempt = stripe.attempts.get(key);
+			if (attempt != null && attempt.isLocked(now, lockMillis)) {
+				return true;
+			}
+		}
+		if (loginAttemptStore == null || !loginAttemptStore.isLocked(key, now, lockMillis)) {
+			return false;
+		}
+		// 他ノードでのロックをローカルにも反映し、以降の判定を共有ストアなしで済ませる
+		synchronized (stripe) {
+			stripe.getOrCreate(key, now, lockMillis).lockedTime = now;
+		}
+		return true;
+	}
+
+	/**
+	 * ログイン失敗の記録
+	 *
+	 * @param loginId
+	 * @param remoteAddr
+	 * @return この失敗でロックされた場合true
+	 */
+	public boolean recordFailure(String loginId, String remoteAddr) {
+		String key = getKey(loginId, remoteAddr);
+		long now = System.currentTimeMillis();
+		long windowMillis = getWindowMillis();
+		int count = Math.max(lockCount, 1);
+		boolean locked;
+		Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			locked = stripe.getOrCreate(key, now, windowMillis).recordFailure(now, windowMillis, count);
+		}
+		if (loginAttemptStore != null
+				&& loginAttemptStore.recordFailure(key, now, windowMillis, count) && !locked) {
+			synchronized (stripe) {
+				stripe.getOrCreate(key, now, windowMillis).lockedTime = now;
+			}
+			locked = true;
+		}
+		return locked;
+	}
+
+	/**
+	 * 失敗回数とロック状態の破棄
+	 *
+	 * @param loginId
+	 * @param remoteAddr
+	 */
+	public void reset(String loginId, String remoteAddr) {
+		String key = getKey(loginId, remoteAddr);
+		Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			stripe.attempts.remove(key);
+		}
+		if (loginAttemptStore != null) {
+			loginAttemptStore.reset(key);
+		}
+	}
+
+	/**
+	 * 試行キーの生成
+	 *
+	 * @param loginId
+	 * @param remoteAddr
+	 * @return 試行キー
+	 */
+	private String getKey(String loginId, String remoteAddr) {
+		return (loginId == null ? "" : loginId) + "@" + (remoteAddr == null ? "" : remoteAddr);
+	}
+
+	/**
+	 * @return 失敗回数を数える期間およびロック時間（ミリ秒）
+	 */
+	private long getWindowMillis() {
+		return lockMinute * 60_000L;
+	}
+
+	/**
+	 * @param key
+	 * @return キーに対応するストライプ
+	 */
+	private Stripe getStripe(String key) {
+		int h = key.hashCode();
+		return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+
+	/**
+	 * ストライプ（インスタンス自体をロックとして使用する）
+	 */
+	private static final class Stripe {
+
+		/** 試行キーごとの状態 */
+		private final Map<String, Attempt> attempts = new HashMap<>();
+		/** 次に掃除を行う件数 */
+		private int purgeSize = PURGE_THRESHOLD;
+
+		/**
+		 * 状態の取得（存在しない場合は生成）
+		 *
+		 * @param key
+		 * @param now
+		 * @param windowMillis
+		 * @return 状態
+		 */
+		private Attempt getOrCreate(String key, long now, long windowMillis) {
+			Attempt attempt = attempts.get(key);
+			if (attempt == null) {
+				if (attempts.size() >= purgeSize) {
+					purge(now, windowMillis);
+				}
+				attempt = new Attempt();
+				attempts.put(key, attempt);
+			}
+			return attempt;
+		}
+
+		/**
+		 * ロックも期間内の失敗もなくなった状態の削除
+		 *
+		 * @param now
+		 * @param windowMillis
+		 */
+		private void purge(long now, long windowMillis) {
+			Iterator<Attempt> it = attempts.values().iterator();
+			while (it.hasNext()) {
+				if (it.next().isExpired(now, windowMillis)) {
+					it.remove();
+				}
+			}
+			purgeSize = Math.max(PURGE_THRESHOLD, attempts.size() * 2);
+		}
+	}
+
+	/**
+	 * 試行キーごとの状態
+	 */
+	private static final class Attempt {
+
+		/** 直近の失敗時刻（リングバッファ、未使用は0） */
+		private long[] failureTimes;
+		/** 次に書き込む位置 */
+		private int next;
+		/** ロック時刻（ロックされていない場合は0） */
+		private long lockedTime;
+
+		/**
+		 * ロック中判定（ロック時間を過ぎていればロックを解除する）
+		 *
+		 * @param now
+		 * @param lockMillis
+		 * @return ロック中の場合true
+		 */
+		private boolean isLocked(long now, long lockMillis) {
+			if (lockedTime == 0) {
+				return false;
+			}
+			if (now - lockedTime < lockMillis) {
+				return true;
+			}
+			lockedTime = 0;
+			return false;
+		}
+
+		/**
+		 * 失敗の記録
+		 *
+		 * @param now
+		 * @param windowMillis
+		 * @param count
+		 * @return この失敗でロックされた場合true
+		 */
+		private boolean recordFailure(long now, long windowMillis, int count) {
+			if (failureTimes == null || failureTimes.length != count) {
+				failureTimes = new long[count];
+				next = 0;
+			}
+			failureTimes[next] = now;
+			next = (next + 1) % count;
+			// 書き込み位置には直近 count 回のうち最も古い失敗時刻が残っている
+			long oldest = failureTimes[next];
+			if (oldest != 0 && now - oldest < windowMillis) {
+				lockedTime = now;
+				Arrays.fill(failureTimes, 0);
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * 削除可能判定
+		 *
+		 * @param now
+		 * @param windowMillis
+		 * @return ロック中でなく、期間内の失敗もない場合true
+		 */
+		private boolean isExpired(long now, long windowMillis) {
+			if (now - lockedTime < windowMillis) {
+				return false;
+			}
+			if (failureTimes != null) {
+				for (long failureTime : failureTimes) {
+					if (failureTime != 0 && now - failureTime < windowMillis) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,218 @@
+package jp.co.sss.lms.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jp.co.sss.lms.entity.LoginUser;
+import jp.co.sss.lms.mapper.LoginMapper;
+
+/**
+ * ログインユーザーキャッシュ<br>
+ * ログイン詳細（ユーザー・企業・会場・コースの結合結果）をユーザーID単位で保持する読み込み型キャッシュ。
+ * LMSユーザーIDからはユーザーIDへの索引を経由して同じエントリを参照する。
+ * 結合元テーブルの更新時は{@link LoginUserCacheInterceptor}がユーザー単位で破棄する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+public class LoginUserCache {
+
+	@Autowired
+	private LoginMapper loginMapper;
+
+	/** 保持時間（秒） */
+	@Value("${setting.login.user.cache.second:300}")
+	private long cacheSecond;
+	/** 上限件数 */
+	@Value("${setting.login.user.cache.size:10000}")
+	private int cacheSize;
+
+	/** ユーザーIDとログイン詳細 */
+	private final ConcurrentHashMap<Integer, Entry> userMap = new ConcurrentHashMap<>();
+	/** LMSユーザーIDとユーザーID */
+	private final ConcurrentHashMap<Integer, Integer> lmsUserIdMap = new ConcurrentHashMap<>();
+	/** 破棄のたびに進める世代（読込中に破棄されたデータを格納しないために使用） */
+	private final AtomicLong generation = new AtomicLong();
+	/** キャッシュヒット件数 */
+	private final AtomicLong hitCount = new AtomicLong();
+	/** キャッシュミス件数 */
+	private final AtomicLong missCount = new AtomicLong();
+	/** 読込時間合計（ナノ秒） */
+	private final AtomicLong loadTimeNanos = new AtomicLong();
+
+	/**
+	 * キャッシュエントリ
+	 */
+	private static final class Entry {
+		/** ログイン詳細 */
+		private final LoginUser loginUser;
+		/** 有効期限（エポックミリ秒） */
+		private final long expireTime;
+
+		private Entry(LoginUser loginUser, long expireTime) {
+			this.loginUser = loginUser;
+			this.expireTime = expireTime;
+		}
+	}
+
+	/**
+	 * ユーザーIDからログイン詳細を取得
+	 *
+	 * @param userId
+	 * @return ログイン詳細（存在しない場合null）
+	 */
+	public LoginUser getByUserId(Integer userId) {
+		if (userId == null) {
+			return null;
+		}
+		LoginUser loginUser = getCached(userId);
+		if (loginUser != null) {
+			return loginUser;
+		}
+		long gen = generation.get();
+		long start = System.nanoTime();
+		loginUser = loginMapper.getLoginDetailByUserId(userId, Constants.DB_FLG_FALSE);
+		loadTimeNanos.addAndGet(System.nanoTime() - start);
+		return put(loginUser, null, gen);
+	}
+
+	/**
+	 * LMSユーザーIDからログイン詳細を取得
+	 *
+	 * @param lmsUserId
+	 * @return ログイン詳細（存在しない場合null）
+	 */
+	public LoginUser getByLmsUserId(Integer lmsUserId) {
+		if (lmsUserId == null) {
+			return null;
+		}
+		Integer userId = lmsUserIdMap.get(lmsUserId);
+		if (userId != null) {
+			LoginUser loginUser = getCached(userId);
+			if (loginUser != null) {
+				return loginUser;
+			}
+		} else {
+			missCount.incrementAndGet();
+		}
+		long gen = generation.get();
+		long start = System.nanoTime();
+		LoginUser loginUser = loginMapper.getLoginDetailByLmsUserId(lmsUserId, Constants.DB_FLG_FALSE);
+		loadTimeNanos.addAndGet(System.nanoTime() - start);
+		return put(loginUser, lmsUserId, gen);
+	}
+
+	/**
+	 * ユーザー単位の破棄
+	 *
+	 * @param userId
+	 */
+	public void evict(Integer userId) {
+		generation.incrementAndGet();
+		if (userId != null) {
+			userMap.remove(userId);
+		}
+	}
+
+	/**
+	 * キャッシュの破棄
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		userMap.clear();
+		lmsUserIdMap.clear();
+	}
+
+	/**
+	 * キャッシュヒット件数の取得
+	 *
+	 * @return キャッシュヒット件数
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * キャッシュミス件数の取得
+	 *
+	 * @return キャッシュミス件数
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 読込時間合計の取得
+	 *
+	 * @return キャッシュミス時のDB読込時間合計（ナノ秒）
+	 */
+	public long getLoadTimeNanos() {
+		return loadTimeNanos.get();
+	}
+
+	/**
+	 * 有効なキャッシュの取得
+	 *
+	 * @param userId
+	 * @return ログイン詳細の複製（ない場合null）
+	 */
+	private LoginUser getCached(Integer userId) {
+		Entry entry = userMap.get(userId);
+		if (entry == null || entry.expireTime <= System.currentTimeMillis()) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return copy(entry.loginUser);
+	}
+
+	/**
+	 * キャッシュへの格納
+	 *
+	 * @param loginUser 読み込んだログイン詳細
+	 * @param lmsUserId LMSユーザーIDで読み込んだ場合はその値
+	 * @param gen       読込開始時の世代
+	 * @return ログイン詳細の複製（存在しない場合null）
+	 */
+	private LoginUser put(LoginUser loginUser, Integer lmsUserId, long gen) {
+		if (loginUser == null) {
+			return null;
+		}
+		if (userMap.size() >= cacheSize) {
+			// 上限を超えた場合は一括で破棄する
+			userMap.clear();
+			lmsUserIdMap.clear();
+		}
+		if (lmsUserId != null) {
+			lmsUserIdMap.put(lmsUserId, loginUser.getUserId());
+		}
+		// 読込中に破棄が発生した場合、読み込んだ値が古い可能性があるため格納しない
+		if (generation.get() == gen) {
+			Entry entry = new Entry(loginUser, System.currentTimeMillis() + cacheSecond * 1000L);
+			userMap.put(loginUser.getUserId(), entry);
+			// 格納と破棄が競合した場合は格納したエントリを取り消す
+			if (generation.get() != gen) {
+				userMap.remove(loginUser.getUserId(), entry);
+			}
+		}
+		return copy(loginUser);
+	}
+
+	/**
+	 * 呼び出し元での変更がキャッシュに影響しないよう複製する
+	 *
+	 * @param loginUser
+	 * @return 複製
+	 */
+	private LoginUser copy(LoginUser loginUser) {
+		LoginUser result = new LoginUser();
+		BeanUtils.copyProperties(loginUser, result);
+		return result;
+	}
+
+}
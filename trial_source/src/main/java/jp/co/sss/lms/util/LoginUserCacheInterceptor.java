@@ -0,0 +1,73 @@
+package jp.co.sss.lms.util;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jp.co.sss.lms.entity.MUser;
+
+/**
+ * ログインユーザーキャッシュ破棄インターセプター<br>
+ * ログイン詳細の結合元テーブルを更新するマッパーの実行後に、該当ユーザーのキャッシュを破棄する。
+ * トランザクション中の場合はコミット後にも再度破棄し、コミット前の値が読み込まれて残ることを防ぐ。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Intercepts(@Signature(type = Executor.class, method = "update", args = { MappedStatement.class,
+		Object.class }))
+public class LoginUserCacheInterceptor implements Interceptor {
+
+	/** ログイン詳細の結合元テーブルを更新するマッパー */
+	private static final String M_USER_MAPPER = "jp.co.sss.lms.mapper.MUserMapper.";
+
+	/** マッパー経由の循環参照を避けるため遅延取得する */
+	@Lazy
+	@Autowired
+	private LoginUserCache loginUserCache;
+
+	/**
+	 * 更新実行後のキャッシュ破棄
+	 */
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		Object result = invocation.proceed();
+		MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+		if (ms.getId().startsWith(M_USER_MAPPER)) {
+			Object parameter = invocation.getArgs()[1];
+			Integer userId = parameter instanceof MUser ? ((MUser) parameter).getUserId() : null;
+			evict(userId);
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						evict(userId);
+					}
+				});
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * キャッシュ破棄（ユーザーIDが特定できない場合は全件）
+	 *
+	 * @param userId
+	 */
+	private void evict(Integer userId) {
+		if (userId == null) {
+			loginUserCache.clear();
+		} else {
+			loginUserCache.evict(userId);
+		}
+	}
+
+}
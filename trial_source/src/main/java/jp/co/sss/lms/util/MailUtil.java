@@ -1,6 +1,15 @@
 package jp.co.sss.lms.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.MailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Component;
@@ -27,14 +36,89 @@ public class MailUtil {
 	 * @param text
 	 */
 	public void sendMail(String to, String[] cc, String subject, String text) {
+		this.mailSender.send(createMessage(to, cc, subject, text));
+	}
+
+	/**
+	 * メール生成
+	 * 
+	 * @param to
+	 * @param cc
+	 * @param subject
+	 * @param text
+	 * @return メール
+	 */
+	public SimpleMailMessage createMessage(String to, String[] cc, String subject, String text) {
 		SimpleMailMessage msg = new SimpleMailMessage();
 		msg.setFrom(messageUtil.getMessage("setting.mail.sender.address"));
 		msg.setTo(to);
 		msg.setCc(cc);
 		msg.setSubject(subject);
 		msg.setText(text);
-		
-		this.mailSender.send(msg);
+		return msg;
+	}
+
+	/**
+	 * メール一括送信<br>
+	 * 一度の接続でまとめて送信し、送信に失敗したメールの位置を返す。
+	 * 送信失敗の結果は値の等しいメールを区別できないため、同一内容のメールは別の接続で送信する。
+	 * 
+	 * @param msgList
+	 * @return 送信に失敗したメールのインデックス
+	 */
+	public Set<Integer> sendMails(List<SimpleMailMessage> msgList) {
+		Set<Integer> failedIndexSet = new HashSet<>();
+		List<Integer> remainList = new ArrayList<>();
+		for (int i = 0; i < msgList.size(); i++) {
+			remainList.add(i);
+		}
+		while (!remainList.isEmpty()) {
+			// 同一内容のメールを含まない単位に分割する
+			Set<SimpleMailMessage> batchSet = new HashSet<>();
+			List<Integer> batchList = new ArrayList<>();
+			List<Integer> nextList = new ArrayList<>();
+			for (Integer index : remainList) {
+				if (batchSet.add(msgList.get(index))) {
+					batchList.add(index);
+				} else {
+					nextList.add(index);
+				}
+			}
+			failedIndexSet.addAll(sendBatch(msgList, batchList));
+			remainList = nextList;
+		}
+		return failedIndexSet;
+	}
+
+	/**
+	 * 同一内容のメールを含まない単位の送信
+	 * 
+	 * @param msgList
+	 * @param batchList 送信するメールのインデックス
+	 * @return 送信に失敗したメールのインデックス
+	 */
+	private List<Integer> sendBatch(List<SimpleMailMessage> msgList, List<Integer> batchList) {
+		SimpleMailMessage[] msgs = new SimpleMailMessage[batchList.size()];
+		for (int i = 0; i < msgs.length; i++) {
+			msgs[i] = msgList.get(batchList.get(i));
+		}
+		try {
+			this.mailSender.send(msgs);
+			return Collections.emptyList();
+		} catch (MailSendException e) {
+			List<Integer> failedList = new ArrayList<>();
+			Set<Object> failedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+			failedSet.addAll(e.getFailedMessages().keySet());
+			for (int i = 0; i < msgs.length; i++) {
+				if (failedSet.contains(msgs[i])) {
+					failedList.add(batchList.get(i));
+				}
+			}
+			// 失敗したメールを特定できない場合は全件失敗とする
+			return failedList.isEmpty() ? batchList : failedList;
+		} catch (MailException e) {
+			return batchList;
+		}
 	}
 
 }
@@ -0,0 +1,53 @@
+package jp.co.sss.lms.util;
+
+/**
+ * パスワードハッシュ方式<br>
+ * 保存するハッシュ値には方式とコストパラメータを含め、方式の移行後も照合できるようにする。
+ * 
+ * @author 東京ITスクール
+ */
+public interface PasswordHashStrategy {
+
+	/**
+	 * 方式IDの取得
+	 * 
+	 * @return 方式ID
+	 */
+	String getId();
+
+	/**
+	 * この方式で生成されたハッシュ値か判定
+	 * 
+	 * @param encodedPassword 保存されているハッシュ値
+	 * @return この方式のハッシュ値の場合true
+	 */
+	boolean supports(String encodedPassword);
+
+	/**
+	 * パスワードのハッシュ化
+	 * 
+	 * @param password
+	 * @param loginId
+	 * @return 保存用のハッシュ値
+	 */
+	String encode(String password, String loginId);
+
+	/**
+	 * パスワードの照合
+	 * 
+	 * @param password
+	 * @param loginId
+	 * @param encodedPassword 保存されているハッシュ値
+	 * @return 一致する場合true
+	 */
+	boolean matches(String password, String loginId, String encodedPassword);
+
+	/**
+	 * 現在のコスト設定で再ハッシュ化が必要か判定
+	 * 
+	 * @param encodedPassword 保存されているハッシュ値
+	 * @return 再ハッシュ化が必要な場合true
+	 */
+	boolean needsRehash(String encodedPassword);
+
+}
@@ -0,0 +1,103 @@
+package jp.co.sss.lms.util;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * パスワードハッシュユーティリティ<br>
+ * 新しいハッシュ値は設定された方式で生成し、照合は保存されているハッシュ値の方式で行う。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class PasswordHashUtil {
+
+	/** ハッシュ化に使用する方式ID */
+	@Value("${setting.password.hash.algorithm:" + Pbkdf2PasswordHashStrategy.ID + "}")
+	private String algorithm;
+
+	@Autowired
+	private List<PasswordHashStrategy> strategyList;
+
+	/** ハッシュ化に使用する方式 */
+	private PasswordHashStrategy currentStrategy;
+
+	/**
+	 * ハッシュ化に使用する方式の決定
+	 */
+	@PostConstruct
+	public void init() {
+		for (PasswordHashStrategy strategy : strategyList) {
+			if (strategy.getId().equals(algorithm)) {
+				currentStrategy = strategy;
+			}
+		}
+		if (currentStrategy == null) {
+			throw new IllegalStateException("パスワードハッシュ方式が存在しません：" + algorithm);
+		}
+	}
+
+	/**
+	 * パスワードのハッシュ化
+	 * 
+	 * @param password
+	 * @param loginId
+	 * @return 保存用のハッシュ値
+	 */
+	public String encode(String password, String loginId) {
+		return currentStrategy.encode(password, loginId);
+	}
+
+	/**
+	 * パスワードの照合<br>
+	 * 保存されているハッシュ値がない場合もハッシュ化を行い、処理時間を揃える。
+	 * 
+	 * @param password
+	 * @param loginId
+	 * @param encodedPassword 保存されているハッシュ値
+	 * @return 一致する場合true
+	 */
+	public boolean matches(String password, String loginId, String encodedPassword) {
+		PasswordHashStrategy strategy = getStrategy(encodedPassword);
+		if (strategy == null) {
+			currentStrategy.encode(password, loginId);
+			return false;
+		}
+		return strategy.matches(password, loginId, encodedPassword);
+	}
+
+	/**
+	 * 再ハッシュ化が必要か判定
+	 * 
+	 * @param encodedPassword 保存されているハッシュ値
+	 * @return 現在の方式・コストと異なる場合true
+	 */
+	public boolean needsRehash(String encodedPassword) {
+		PasswordHashStrategy strategy = getStrategy(encodedPassword);
+		return strategy != currentStrategy || strategy.needsRehash(encodedPassword);
+	}
+
+	/**
+	 * ハッシュ値に対応する方式の取得
+	 * 
+	 * @param encodedPassword
+	 * @return 方式（該当なしの場合null）
+	 */
+	private PasswordHashStrategy getStrategy(String encodedPassword) {
+		if (encodedPassword == null) {
+			return null;
+		}
+		for (PasswordHashStrategy strategy : strategyList) {
+			if (strategy.supports(encodedPassword)) {
+				return strategy;
+			}
+		}
+		return null;
+	}
+
+}
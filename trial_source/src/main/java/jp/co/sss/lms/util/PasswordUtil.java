@@ -1,5 +1,7 @@
 package jp.co.sss.lms.util;
 
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Random;
@@ -16,6 +18,19 @@ public class PasswordUtil {
 
 	private static int STRETCH_COUNT = 10;
 
+	/** SHA-256のハッシュ値のバイト数 */
+	private static final int DIGEST_LENGTH = 32;
+	/** 16進数文字 */
+	private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	/** スレッドごとのSHA-256 */
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	});
+
 	/** パスワードポリシー */
 	public final static String PASSWORD_POLICY = "^(?=.*[0-9])(?=.*[a-z])(?=.*[A-Z])[0-9a-zA-Z\\-]{8,}$";
 
@@ -26,70 +41,59 @@ public class PasswordUtil {
 			'3', '4', '5', '6', '7', '8', '9' };
 
 	/**
-	 * salt +ハッシュ化+ストレッチングしたパスワ-ドを 取得
-	 * 
-	 * @param password
-	 * @param userId
-	 * @return getStretchedPassword()
-	 */
-	public String getSaltedAndStrechedPassword(String password, String userId) {
-		return getStretchedPassword(getSaltedPassword(password, userId), userId);
-	}
-
-	/**
-	 * salt＋ハッシュ化したパスワードを取得
-	 * 
-	 * @param password
-	 * @param userId
-	 * @return getSha256()
-	 * 
-	 */
-	private String getSaltedPassword(String password, String userId) {
-		String salt = getSha256(userId);
-		return getSha256(salt + password);
-	}
-
-	/**
-	 * salt + ストレッチングしたパスワードを取得(推奨)
+	 * salt +ハッシュ化+ストレッチングしたパスワ-ドを 取得<br>
+	 * salt = SHA256(userId)、saltedPassword = SHA256(salt + password)、
+	 * hash = SHA256(hash + salt + saltedPassword) をストレッチング回数繰り返す。
+	 * 各ハッシュ値は16進数文字列（小文字）として連結する。
 	 * 
 	 * @param password
 	 * @param userId
 	 * @return hash
 	 */
-	private String getStretchedPassword(String password, String userId) {
-		String salt = getSha256(userId);
-		String hash = "";
-
+	public String getSaltedAndStrechedPassword(String password, String userId) {
+		MessageDigest md = SHA256.get();
+		byte[] digest = new byte[DIGEST_LENGTH];
+
+		// salt＋ハッシュ化
+		byte[] salt = new byte[DIGEST_LENGTH * 2];
+		md.update(userId.getBytes(StandardCharsets.UTF_8));
+		digestToHex(md, digest, salt);
+		byte[] saltedPassword = new byte[DIGEST_LENGTH * 2];
+		md.update(salt);
+		md.update(password.getBytes(StandardCharsets.UTF_8));
+		digestToHex(md, digest, saltedPassword);
+
+		// ストレッチング（初回は前回のハッシュ値なし）
+		byte[] hash = new byte[DIGEST_LENGTH * 2];
 		for (int i = 0; i < STRETCH_COUNT; i++) {
-			hash = getSha256(hash + salt + password);
+			if (i > 0) {
+				md.update(hash);
+			}
+			md.update(salt);
+			md.update(saltedPassword);
+			digestToHex(md, digest, hash);
 		}
 
-		return hash;
+		return new String(hash, StandardCharsets.US_ASCII);
 	}
 
 	/**
-	 * 文字列から SHA256 のハッシュ値を取得
+	 * ハッシュ値を計算し16進数文字列（ASCII）のバイト列に変換
 	 * 
-	 * @param target
-	 * @return SHA256 のハッシュ値
+	 * @param md
+	 * @param digest ハッシュ値の作業領域
+	 * @param hex    変換結果の格納先
 	 */
-	private String getSha256(String target) {
-		MessageDigest md = null;
-		StringBuffer buf = new StringBuffer();
+	private void digestToHex(MessageDigest md, byte[] digest, byte[] hex) {
 		try {
-			md = MessageDigest.getInstance("SHA-256");
-			md.update(target.getBytes());
-			byte[] digest = md.digest();
-
-			for (int i = 0; i < digest.length; i++) {
-				buf.append(String.format("%02x", digest[i]));
-			}
-
-		} catch (NoSuchAlgorithmException e) {
+			md.digest(digest, 0, DIGEST_LENGTH);
+		} catch (DigestException e) {
 			throw new RuntimeException(e);
 		}
-
-		return buf.toString();
+		for (int i = 0; i < DIGEST_LENGTH; i++) {
+			hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0x0f];
+			hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0x0f];
+		}
 	}
 
 	/**
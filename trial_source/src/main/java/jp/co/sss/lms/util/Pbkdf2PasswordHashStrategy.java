@@ -0,0 +1,150 @@
+package jp.co.sss.lms.util;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * パスワードハッシュ方式（PBKDF2-HMAC-SHA256）<br>
+ * ハッシュ値は「$pbkdf2-sha256$反復回数$salt$ハッシュ」の形式で保存する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class Pbkdf2PasswordHashStrategy implements PasswordHashStrategy {
+
+	/** 方式ID */
+	public static final String ID = "pbkdf2-sha256";
+	/** ハッシュ値の接頭辞 */
+	private static final String PREFIX = "$" + ID + "$";
+	/** アルゴリズム */
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	/** saltのバイト数 */
+	private static final int SALT_BYTES = 16;
+	/** ハッシュのビット数 */
+	private static final int HASH_BITS = 256;
+	/** 較正時の計測用反復回数 */
+	private static final int CALIBRATION_ITERATION = 20000;
+
+	/** 反復回数 */
+	@Value("${setting.password.pbkdf2.iteration:310000}")
+	private int iteration;
+	/** 目標処理時間（ミリ秒、0より大きい場合は起動時に反復回数を較正） */
+	@Value("${setting.password.pbkdf2.target.millis:0}")
+	private long targetMillis;
+
+	private final SecureRandom random = new SecureRandom();
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * 反復回数の較正
+	 */
+	@PostConstruct
+	public void init() {
+		if (targetMillis > 0) {
+			iteration = calibrate(targetMillis);
+		}
+		long start = System.nanoTime();
+		encode("calibration", "");
+		logger.info("PBKDF2反復回数：" + iteration + "、1回あたりの処理時間："
+				+ (System.nanoTime() - start) / 1000000 + "ms");
+	}
+
+	/**
+	 * 目標処理時間に見合う反復回数を計測
+	 * 
+	 * @param millis 目標処理時間（ミリ秒）
+	 * @return 反復回数（1000単位）
+	 */
+	public int calibrate(long millis) {
+		byte[] salt = new byte[SALT_BYTES];
+		// JITの最適化後の時間を計測するため数回空実行する
+		long elapsed = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			long start = System.nanoTime();
+			derive("calibration".toCharArray(), salt, CALIBRATION_ITERATION);
+			elapsed = Math.min(elapsed, System.nanoTime() - start);
+		}
+		long count = millis * 1000000L * CALIBRATION_ITERATION / Math.max(elapsed, 1);
+		return (int) Math.max(1000, Math.min(Integer.MAX_VALUE, count / 1000 * 1000));
+	}
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+	@Override
+	public boolean supports(String encodedPassword) {
+		return encodedPassword != null && encodedPassword.startsWith(PREFIX);
+	}
+
+	@Override
+	public String encode(String password, String loginId) {
+		byte[] salt = new byte[SALT_BYTES];
+		random.nextBytes(salt);
+		byte[] hash = derive(password.toCharArray(), salt, iteration);
+		Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+		return PREFIX + iteration + "$" + encoder.encodeToString(salt) + "$"
+				+ encoder.encodeToString(hash);
+	}
+
+	@Override
+	public boolean matches(String password, String loginId, String encodedPassword) {
+		String[] parts = encodedPassword.substring(PREFIX.length()).split("\\$");
+		if (parts.length != 3) {
+			return false;
+		}
+		try {
+			int count = Integer.parseInt(parts[0]);
+			byte[] salt = Base64.getDecoder().decode(parts[1]);
+			byte[] expected = Base64.getDecoder().decode(parts[2]);
+			return MessageDigest.isEqual(expected, derive(password.toCharArray(), salt, count));
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public boolean needsRehash(String encodedPassword) {
+		int end = encodedPassword.indexOf('$', PREFIX.length());
+		try {
+			return end < 0
+					|| Integer.parseInt(encodedPassword.substring(PREFIX.length(), end)) < iteration;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * ハッシュの導出
+	 * 
+	 * @param password
+	 * @param salt
+	 * @param count 反復回数
+	 * @return ハッシュ
+	 */
+	private byte[] derive(char[] password, byte[] salt, int count) {
+		PBEKeySpec spec = new PBEKeySpec(password, salt, count, HASH_BITS);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new RuntimeException(e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+
+}
@@ -0,0 +1,172 @@
+package jp.co.sss.lms.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * URI照合用のトライ木<br>
+ * 構築後は不変とし、照合はURIの長さに比例する時間でオブジェクトを生成せずに行う。
+ *
+ * @author 東京ITスクール
+ */
+public final class RouteTrie {
+
+	/** 完全一致フラグ */
+	private static final byte FLG_EXACT = 1;
+	/** 前方一致フラグ */
+	private static final byte FLG_PREFIX = 2;
+
+	/** ノードごとの遷移文字（昇順） */
+	private final char[][] labels;
+	/** ノードごとの遷移先ノード番号 */
+	private final int[][] children;
+	/** ノードごとの一致フラグ */
+	private final byte[] flags;
+
+	private RouteTrie(char[][] labels, int[][] children, byte[] flags) {
+		this.labels = labels;
+		this.children = children;
+		this.flags = flags;
+	}
+
+	/**
+	 * 指定位置以降の文字列が登録されたパスに一致するか判定
+	 *
+	 * @param uri
+	 * @param from 照合開始位置
+	 * @return 完全一致または前方一致するパスがある場合true
+	 */
+	public boolean matches(String uri, int from) {
+		int node = 0;
+		if ((flags[node] & FLG_PREFIX) != 0) {
+			return true;
+		}
+		for (int i = from; i < uri.length(); i++) {
+			int idx = Arrays.binarySearch(labels[node], uri.charAt(i));
+			if (idx < 0) {
+				return false;
+			}
+			node = children[node][idx];
+			if ((flags[node] & FLG_PREFIX) != 0) {
+				return true;
+			}
+		}
+		return (flags[node] & FLG_EXACT) != 0;
+	}
+
+	/**
+	 * 文字列全体が登録されたパスに一致するか判定
+	 *
+	 * @param uri
+	 * @return 完全一致または前方一致するパスがある場合true
+	 */
+	public boolean matches(String uri) {
+		return matches(uri, 0);
+	}
+
+	/**
+	 * 区切り文字の位置から始まる部分文字列のいずれかが登録されたパスに一致するか判定
+	 *
+	 * @param uri
+	 * @param delimiter 区切り文字
+	 * @return 一致するパスがある場合true
+	 */
+	public boolean matchesAnywhere(String uri, char delimiter) {
+		for (int i = 0; i < uri.length(); i++) {
+			if (uri.charAt(i) == delimiter && matches(uri, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * トライ木の構築
+	 */
+	public static final class Builder {
+
+		/** 構築用ノード */
+		private static final class Node {
+			private final TreeMap<Character, Node> children = new TreeMap<>();
+			private byte flags;
+		}
+
+		private final Node root = new Node();
+
+		/**
+		 * 完全一致するパスを追加
+		 *
+		 * @param path
+		 * @return Builder
+		 */
+		public Builder addExact(String path) {
+			put(path).flags |= FLG_EXACT;
+			return this;
+		}
+
+		/**
+		 * 前方一致するパスを追加
+		 *
+		 * @param path
+		 * @return Builder
+		 */
+		public Builder addPrefix(String path) {
+			put(path).flags |= FLG_PREFIX;
+			return this;
+		}
+
+		private Node put(String path) {
+			Node node = root;
+			for (int i = 0; i < path.length(); i++) {
+				node = node.children.computeIfAbsent(path.charAt(i), c -> new Node());
+			}
+			return node;
+		}
+
+		/**
+		 * 配列表現の不変なトライ木に変換
+		 *
+		 * @return RouteTrie
+		 */
+		public RouteTrie build() {
+			// 幅優先でノード番号を採番
+			Map<Node, Integer> ids = new IdentityHashMap<>();
+			Deque<Node> queue = new ArrayDeque<>();
+			List<Node> order = new ArrayList<>();
+			ids.put(root, 0);
+			order.add(root);
+			queue.add(root);
+			while (!queue.isEmpty()) {
+				for (Node child : queue.poll().children.values()) {
+					ids.put(child, order.size());
+					order.add(child);
+					queue.add(child);
+				}
+			}
+			int size = order.size();
+			char[][] labels = new char[size][];
+			int[][] children = new int[size][];
+			byte[] flags = new byte[size];
+			for (int i = 0; i < size; i++) {
+				Node node = order.get(i);
+				labels[i] = new char[node.children.size()];
+				children[i] = new int[node.children.size()];
+				int j = 0;
+				for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+					labels[i][j] = entry.getKey();
+					children[i][j] = ids.get(entry.getValue());
+					j++;
+				}
+				flags[i] = node.flags;
+			}
+			return new RouteTrie(labels, children, flags);
+		}
+	}
+
+}
@@ -0,0 +1,50 @@
+package jp.co.sss.lms.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * パスワードハッシュ方式（salt＋ストレッチングSHA-256）<br>
+ * 従来から保存されている64桁の16進数のハッシュ値を照合する。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class Sha256PasswordHashStrategy implements PasswordHashStrategy {
+
+	/** 方式ID */
+	public static final String ID = "sha256";
+
+	@Autowired
+	private PasswordUtil passwordUtil;
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+	@Override
+	public boolean supports(String encodedPassword) {
+		return encodedPassword != null && encodedPassword.matches("[0-9a-f]{64}");
+	}
+
+	@Override
+	public String encode(String password, String loginId) {
+		return passwordUtil.getSaltedAndStrechedPassword(password, loginId);
+	}
+
+	@Override
+	public boolean matches(String password, String loginId, String encodedPassword) {
+		return MessageDigest.isEqual(encode(password, loginId).getBytes(StandardCharsets.US_ASCII),
+				encodedPassword.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Override
+	public boolean needsRehash(String encodedPassword) {
+		return false;
+	}
+
+}
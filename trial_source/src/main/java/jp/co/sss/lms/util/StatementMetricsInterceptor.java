@@ -0,0 +1,245 @@
+package jp.co.sss.lms.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * SQLメトリクスインターセプター<br>
+ * マッパーのステートメントIDごとに実行時間（lms.mybatis.statement）と件数（lms.mybatis.statement.rows）を記録する。
+ * 実行時間が閾値を超えたステートメントは、バインド値を伏せてパラメータの名前と型のみをログに出力する。
+ * 設定により、遅延したステートメントの実行計画（EXPLAIN）をステートメントIDごとに間隔をあけて取得する。
+ *
+ * @author 東京ITスクール
+ */
+@Component
+@Intercepts({
+		@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+				RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class,
+				RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }) })
+public class StatementMetricsInterceptor implements Interceptor {
+
+	/** SqlSessionFactory経由の循環参照を避けるため遅延取得する */
+	@Lazy
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	/** 遅延とみなす実行時間（ミリ秒、0以下の場合はログ出力しない） */
+	@Value("${setting.sql.slow.millis:500}")
+	private long slowMillis;
+	/** 遅延したステートメントの実行計画を取得するか */
+	@Value("${setting.sql.slow.explain:false}")
+	private volatile boolean explainEnabled;
+	/** 同一ステートメントの実行計画を再取得するまでの間隔（分） */
+	@Value("${setting.sql.slow.explain.interval.minute:10}")
+	private long explainIntervalMinute;
+
+	/** ステートメントIDごとの前回実行計画取得時刻 */
+	private final ConcurrentHashMap<String, Long> explainTimeMap = new ConcurrentHashMap<>();
+
+	private final Logger logger = LoggerFactory.getLogger(getClass());
+
+	/**
+	 * ステートメント実行時間・件数の記録
+	 */
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+		Object[] args = invocation.getArgs();
+		MappedStatement ms = (MappedStatement) args[0];
+		long start = System.nanoTime();
+		String exception = "none";
+		Object result = null;
+		try {
+			result = invocation.proceed();
+			return result;
+		} catch (Throwable e) {
+			exception = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			int rows = getRowCount(result);
+			Timer.builder("lms.mybatis.statement")
+					.tag("id", ms.getId())
+					.tag("command", ms.getSqlCommandType().name())
+					.tag("exception", exception)
+					.register(meterRegistry)
+					.record(elapsed, TimeUnit.NANOSECONDS);
+			DistributionSummary.builder("lms.mybatis.statement.rows")
+					.tag("id", ms.getId())
+					.register(meterRegistry)
+					.record(rows);
+			if (slowMillis > 0 && elapsed >= TimeUnit.MILLISECONDS.toNanos(slowMillis)) {
+				try {
+					logSlowStatement(invocation, ms, elapsed, rows);
+				} catch (RuntimeException e) {
+					// ログ出力の失敗でステートメントの結果を失わないようにする
+					logger.warn("遅延SQLのログを出力できません id={}", ms.getId(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 実行計画取得の切替（運用中に一時的に有効化する場合に使用）
+	 *
+	 * @param explainEnabled
+	 */
+	public void setExplainEnabled(boolean explainEnabled) {
+		this.explainEnabled = explainEnabled;
+	}
+
+	/**
+	 * 件数の取得
+	 *
+	 * @param result 検索結果または更新件数
+	 * @return 件数
+	 */
+	private int getRowCount(Object result) {
+		if (result instanceof List) {
+			return ((List<?>) result).size();
+		} else if (result instanceof Integer) {
+			return (Integer) result;
+		}
+		return 0;
+	}
+
+	/**
+	 * 遅延ステートメントのログ出力
+	 *
+	 * @param invocation
+	 * @param ms
+	 * @param elapsed
+	 * @param rows
+	 */
+	private void logSlowStatement(Invocation invocation, MappedStatement ms, long elapsed, int rows) {
+		Object[] args = invocation.getArgs();
+		Object parameter = args[1];
+		BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : ms.getBoundSql(parameter);
+		logger.warn("遅延SQL id={} time={}ms rows={} params=[{}] sql={}", ms.getId(),
+				TimeUnit.NANOSECONDS.toMillis(elapsed), rows, getParameterShape(ms, boundSql, parameter),
+				boundSql.getSql().replaceAll("\\s+", " ").trim());
+		if (explainEnabled && isExplainDue(ms.getId())) {
+			explain((Executor) invocation.getTarget(), ms, boundSql, parameter);
+		}
+	}
+
+	/**
+	 * パラメータの名前と型（値は出力しない）
+	 *
+	 * @param ms
+	 * @param boundSql
+	 * @param parameter
+	 * @return 「名前:型」のカンマ区切り
+	 */
+	private String getParameterShape(MappedStatement ms, BoundSql boundSql, Object parameter) {
+		StringBuilder sb = new StringBuilder();
+		MetaObject metaObject = null;
+		for (ParameterMapping mapping : boundSql.getParameterMappings()) {
+			String property = mapping.getProperty();
+			Object value;
+			if (boundSql.hasAdditionalParameter(property)) {
+				value = boundSql.getAdditionalParameter(property);
+			} else if (parameter == null) {
+				value = null;
+			} else if (ms.getConfiguration().getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+				value = parameter;
+			} else {
+				if (metaObject == null) {
+					metaObject = ms.getConfiguration().newMetaObject(parameter);
+				}
+				value = metaObject.hasGetter(property) ? metaObject.getValue(property) : null;
+			}
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(property).append(':').append(value == null ? "null" : value.getClass().getSimpleName());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 実行計画を取得する時期か判定（取得する場合は取得時刻を更新する）
+	 *
+	 * @param id
+	 * @return 取得する場合true
+	 */
+	private boolean isExplainDue(String id) {
+		long now = System.currentTimeMillis();
+		long interval = TimeUnit.MINUTES.toMillis(explainIntervalMinute);
+		Long last = explainTimeMap.get(id);
+		if (last != null && now - last < interval) {
+			return false;
+		}
+		return last == null ? explainTimeMap.putIfAbsent(id, now) == null
+				: explainTimeMap.replace(id, last, now);
+	}
+
+	/**
+	 * 実行計画の取得とログ出力<br>
+	 * 実行中のトランザクションを失敗させないよう、セーブポイント内で実行する。
+	 *
+	 * @param executor
+	 * @param ms
+	 * @param boundSql
+	 * @param parameter
+	 */
+	private void explain(Executor executor, MappedStatement ms, BoundSql boundSql, Object parameter) {
+		try {
+			Connection connection = executor.getTransaction().getConnection();
+			Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+			try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+				new DefaultParameterHandler(ms, parameter, boundSql).setParameters(ps);
+				StringBuilder plan = new StringBuilder();
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						plan.append('\n').append(rs.getString(1));
+					}
+				}
+				logger.warn("遅延SQL実行計画 id={}{}", ms.getId(), plan);
+			} catch (SQLException e) {
+				if (savepoint != null) {
+					connection.rollback(savepoint);
+				}
+				throw e;
+			} finally {
+				if (savepoint != null) {
+					connection.releaseSavepoint(savepoint);
+				}
+			}
+		} catch (SQLException e) {
+			logger.warn("遅延SQLの実行計画を取得できません id={}", ms.getId(), e);
+		}
+	}
+
+}
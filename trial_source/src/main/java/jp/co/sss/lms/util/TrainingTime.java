@@ -1,92 +1,163 @@
 package jp.co.sss.lms.util;
 
 import java.io.Serializable;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
-import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-
-import lombok.Getter;
-import lombok.Setter;
+import java.time.LocalTime;
 
 /**
- * 研修時刻ユーティリティ
- * 
+ * 研修時刻ユーティリティ<br>
+ * 0時からの分で時刻を保持する不変クラス。0:00～23:59の1440個のインスタンスは共有し、
+ * {@link #parse(String)}・{@link #of(int, int)}・{@link #now()}は共有インスタンスを返却する。
+ * 24時以降（中抜け時間の合計など）は都度生成する。
+ *
  * @author 東京ITスクール
  */
-@Component
-@Getter
-@Setter
-public class TrainingTime implements Comparable<TrainingTime>, Serializable {
+public final class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/** シリアルバージョンUID */
-	private static final long serialVersionUID = 1L;
+	private static final long serialVersionUID = 2L;
+
+	/** 1日の分数 */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	/** 未設定を示す値 */
+	private static final int BLANK_VALUE = Integer.MIN_VALUE;
+	/** 解析できない文字列を示す値 */
+	private static final int INVALID_VALUE = -1;
+
+	/** 未設定の研修時刻 */
+	public static final TrainingTime BLANK = new TrainingTime(BLANK_VALUE);
+	/** 0:00～23:59の共有インスタンス */
+	private static final TrainingTime[] CACHE = new TrainingTime[MINUTES_PER_DAY];
+
+	static {
+		for (int i = 0; i < MINUTES_PER_DAY; i++) {
+			CACHE[i] = new TrainingTime(i);
+		}
+	}
 
-	/** 時間 */
-	private Integer hour;
-	/** 分 */
-	private Integer minute;
+	/** 0時からの分（未設定の場合BLANK_VALUE） */
+	private final int minutes;
+	/** HH:mm形式の文字列 */
+	private final transient String formatted;
 
 	/**
 	 * 現在時刻でインスタンスを作成する
+	 *
+	 * @see #now()
 	 */
 	public TrainingTime() {
-		SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
-		String timeStr = sdf.format(new Date());
-		setTimeStr(timeStr);
+		this(now().minutes);
 	}
 
 	/**
 	 * 指定時刻でインスタンスを作成
-	 * 
+	 *
 	 * @param hour
 	 * @param minute
+	 * @see #of(int, int)
 	 */
 	public TrainingTime(Integer hour, Integer minute) {
-		if (!isValidTrainingTime(hour, minute)) {
-			throw new IllegalArgumentException();
+		this(toMinutes(hour, minute));
+	}
+
+	/**
+	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 *
+	 * @param timeStr
+	 * @see #parse(String)
+	 */
+	public TrainingTime(String timeStr) {
+		this(parse(timeStr).minutes);
+	}
+
+	/**
+	 * 分を指定してインスタンスを作成
+	 *
+	 * @param minutes 0時からの分（未設定の場合BLANK_VALUE）
+	 */
+	private TrainingTime(int minutes) {
+		this.minutes = minutes;
+		this.formatted = format(minutes);
+	}
+
+	/**
+	 * 現在時刻の取得
+	 *
+	 * @return 現在時刻（時分）の研修時刻
+	 */
+	public static TrainingTime now() {
+		LocalTime now = LocalTime.now();
+		return CACHE[now.getHour() * 60 + now.getMinute()];
+	}
+
+	/**
+	 * 時分を指定して取得
+	 *
+	 * @param hour
+	 * @param minute 0～59
+	 * @return 研修時刻
+	 */
+	public static TrainingTime of(int hour, int minute) {
+		return ofMinutes(toMinutes(hour, minute));
+	}
+
+	/**
+	 * 0時からの分を指定して取得
+	 *
+	 * @param minutes
+	 * @return 研修時刻（0:00～23:59の場合は共有インスタンス）
+	 */
+	public static TrainingTime ofMinutes(int minutes) {
+		if (minutes >= 0 && minutes < MINUTES_PER_DAY) {
+			return CACHE[minutes];
 		}
-		this.hour = hour;
-		this.minute = minute;
+		return new TrainingTime(minutes);
 	}
 
 	/**
-	 * インスタンス可能か返却する
-	 * 
+	 * 文字列から取得する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 *
+	 * @param timeStr
+	 * @return 研修時刻（空の場合{@link #BLANK}）
+	 * @throws IllegalArgumentException 有効フォーマットでない場合
+	 */
+	public static TrainingTime parse(String timeStr) {
+		if (timeStr == null || timeStr.isEmpty()) {
+			return BLANK;
+		}
+		int value = parseMinutes(timeStr);
+		if (value == INVALID_VALUE) {
+			throw new IllegalArgumentException(timeStr + " is Illegal.");
+		}
+		return ofMinutes(value);
+	}
+
+	/**
+	 * インスタンス可能か返却する（空の場合も可能とする）
+	 *
 	 * @param timeStr
 	 * @return boolean
 	 */
-	public boolean isValidTrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
+	public static boolean isValid(String timeStr) {
+		if (timeStr == null || timeStr.isEmpty()) {
 			return true;
 		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			final String numRegex = "[0-9]+";
-			if (times.length == 2 && times[0].matches(numRegex) && times[1].matches(numRegex)) {
-				hour = Integer.parseInt(times[0]);
-				minute = Integer.parseInt(times[1]);
-				return isValidTrainingTime(hour, minute);
-			} else {
-				return false;
-			}
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-			return isValidTrainingTime(hour, minute);
-		} else {
-			return false;
-		}
+		return parseMinutes(timeStr) != INVALID_VALUE;
+	}
+
+	/**
+	 * インスタンス可能か返却する
+	 *
+	 * @param timeStr
+	 * @return boolean
+	 * @see #isValid(String)
+	 */
+	public boolean isValidTrainingTime(String timeStr) {
+		return isValid(timeStr);
 	}
 
 	/**
 	 * インスタンス可能か返却する
-	 * 
+	 *
 	 * @param hour
 	 * @param minute
 	 * @return boolean
@@ -102,87 +173,58 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 	}
 
 	/**
-	 * 文字列からインスタンス化する。 有効フォーマット："9:00", "18:00", "0900", "1800"
+	 * 時間の取得
 	 *
-	 * @param timeStr
+	 * @return 時間（未設定の場合null）
 	 */
-	public TrainingTime(String timeStr) {
-		if (StringUtils.isEmpty(timeStr)) {
-			return;
-		}
-		setTimeStr(timeStr);
+	public Integer getHour() {
+		return isBlank() ? null : Math.floorDiv(minutes, 60);
 	}
 
 	/**
-	 * 時刻を設定
+	 * 分の取得
 	 *
-	 * @param timeStr
+	 * @return 分（未設定の場合null）
 	 */
-	private void setTimeStr(String timeStr) {
-		// 有効フォーマットかどうかチェックを行う
-		if (!isValidTrainingTime(timeStr)) {
-			throw new IllegalArgumentException(timeStr + " is Illegal.");
-		}
-		Integer hour, minute;
-		if (timeStr.indexOf(":") >= 0) {
-			String[] times = timeStr.split(":");
-			// isValidTrainingTimeでチェック済のためそのまま変換する
-			hour = Integer.parseInt(times[0]);
-			minute = Integer.parseInt(times[1]);
-		} else if (timeStr.matches("[0-9]{4}")) {
-			// 数値4桁の場合
-			String hourStr = timeStr.substring(0, 2);
-			String minuteStr = timeStr.substring(2, 4);
-			hour = Integer.parseInt(hourStr);
-			minute = Integer.parseInt(minuteStr);
-		} else {
-			throw new IllegalArgumentException();
-		}
-		// 数値的なチェックを行う
-		if (!isValidTrainingTime(hour, minute)) {
-			throw new IllegalArgumentException();
+	public Integer getMinute() {
+		return isBlank() ? null : Math.floorMod(minutes, 60);
+	}
+
+	/**
+	 * 0時からの分の取得
+	 *
+	 * @return 0時からの分
+	 * @throws IllegalStateException 未設定の場合
+	 */
+	public int toMinutes() {
+		if (isBlank()) {
+			throw new IllegalStateException("TrainingTime is blank.");
 		}
-		this.hour = hour;
-		this.minute = minute;
+		return minutes;
 	}
 
 	/**
 	 * 値が (this + augend) の TrainingTime を返します。
-	 * 
+	 *
 	 * @param augend - この TrainingTime に加算する値
 	 * @return this + augend
 	 */
 	public TrainingTime add(TrainingTime augend) {
-		Integer retHour = this.hour;
-		Integer retMinute = this.minute;
-		retHour += augend.hour;
-		retMinute += augend.minute;
-		while (retMinute >= 60) {
-			retHour += 1;
-			retMinute -= 60;
-		}
-		return new TrainingTime(retHour, retMinute);
+		return ofMinutes(toMinutes() + augend.toMinutes());
 	}
 
 	/**
 	 * 値が (this - augend) の TrainingTime を返します。
-	 * 
+	 *
 	 * @param augend - この TrainingTime から減産する値
 	 * @return this - augend
 	 */
 	public TrainingTime subtract(TrainingTime subtrahend) {
-		if (this.compareTo(subtrahend) > 0) {
-			Integer retHour = this.hour;
-			Integer retMinute = this.minute;
-			retHour -= subtrahend.hour;
-			retMinute -= subtrahend.minute;
-			while (retHour > 0 && retMinute < 0) {
-				retHour -= 1;
-				retMinute += 60;
-			}
-			return new TrainingTime(retHour, retMinute);
-		} else if (this.equals(subtrahend)) {
-			return new TrainingTime(0, 0);
+		if (this.equals(subtrahend)) {
+			// 未設定同士を含め、等しい場合は0:00
+			return CACHE[0];
+		} else if (this.compareTo(subtrahend) > 0) {
+			return ofMinutes(toMinutes() - subtrahend.toMinutes());
 		} else {
 			throw new UnsupportedOperationException("未実装");
 		}
@@ -190,7 +232,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/**
 	 * 与えられた引数のうち、最大を返却します
-	 * 
+	 *
 	 * @param times
 	 * @return
 	 * @see #compareTo(TrainingTime)
@@ -210,7 +252,7 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/**
 	 * 与えられた引数のうち、最小を返却します
-	 * 
+	 *
 	 * @param times
 	 * @return
 	 * @see #compareTo(TrainingTime)
@@ -238,62 +280,50 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/**
 	 * 指定した研修時間インスタンスが一致しているか判定
-	 * 
+	 *
 	 * @param anObject
 	 * @return boolean
 	 */
 	@Override
 	public boolean equals(Object anObject) {
 		if (anObject instanceof TrainingTime) {
-			TrainingTime target = (TrainingTime) anObject;
-			if (target.hour == this.hour && target.minute == this.minute) {
-				return true;
-			} else {
-				return false;
-			}
-		} else {
-			return false;
+			return ((TrainingTime) anObject).minutes == this.minutes;
 		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		return Integer.hashCode(minutes);
 	}
 
 	/**
-	 * 指定した研修時間インスタンスの比較
-	 * 
+	 * 指定した研修時間インスタンスの比較（未設定は設定済みより前とする）
+	 *
 	 * @param anotherTrainingTime
 	 * @return 比較結果
 	 */
 	@Override
 	public int compareTo(TrainingTime anotherTrainingTime) {
-		if (this.isBlank() && anotherTrainingTime != null && !anotherTrainingTime.isBlank()) {
-			return -1;
-		}
-		if (!this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 1;
-		}
-		if (this.isBlank() && (anotherTrainingTime == null || anotherTrainingTime.isBlank())) {
-			return 0;
-		}
-		if (this.equals(anotherTrainingTime)) {
-			return 0;
+		boolean anotherBlank = anotherTrainingTime == null || anotherTrainingTime.isBlank();
+		if (this.isBlank() || anotherBlank) {
+			return Boolean.compare(!this.isBlank(), !anotherBlank);
 		}
-		if (this.hour != anotherTrainingTime.hour) {
-			return this.hour.compareTo(anotherTrainingTime.hour);
-		}
-		return this.minute.compareTo(anotherTrainingTime.minute);
+		return Integer.compare(this.minutes, anotherTrainingTime.minutes);
 	}
 
 	/**
 	 * フィールド変数に値が設定されているかどうか
-	 * 
+	 *
 	 * @return boolean
 	 */
 	public boolean isBlank() {
-		return (this.hour == null || this.minute == null);
+		return minutes == BLANK_VALUE;
 	}
 
 	/**
 	 * フィールド変数に値が設定されていないかどうか
-	 * 
+	 *
 	 * @return boolean
 	 */
 	public boolean isNotBlank() {
@@ -302,84 +332,49 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 
 	/**
 	 * 時刻をHH:mm形式で返却
-	 * 
+	 *
 	 * @return HH:mm
 	 */
 	public String getFormattedString() {
-		if (hour == null || minute == null) {
-			return "";
-		} else {
-			return String.format("%1$02d:%2$02d", hour, minute);
-		}
+		return formatted;
 	}
 
 	/**
 	 * 分を15分刻みで切り上げる。出社に仕様
-	 * 
-	 * @return
+	 *
+	 * @return 切り上げた研修時刻（インスタンス自体は変更しない）
 	 */
 	public TrainingTime roundUp() {
-		if (between(this.minute, 46, 59)) {
-			this.hour++;
-			this.minute = 0;
-		} else if (between(this.minute, 1, 15)) {
-			this.minute = 15;
-		} else if (between(this.minute, 16, 30)) {
-			this.minute = 30;
-		} else if (between(this.minute, 31, 45)) {
-			this.minute = 45;
+		if (isBlank()) {
+			return this;
 		}
-		return this;
+		return ofMinutes(Math.floorDiv(minutes + 14, 15) * 15);
 	}
 
 	/**
 	 * 分を15分刻みで切り捨てる。退社に仕様
-	 * 
-	 * @return
+	 *
+	 * @return 切り捨てた研修時刻（インスタンス自体は変更しない）
 	 */
 	public TrainingTime roundDown() {
-		if (between(this.minute, 45, 59)) {
-			this.minute = 45;
-		} else if (between(this.minute, 0, 14)) {
-			this.minute = 0;
-		} else if (between(this.minute, 15, 29)) {
-			this.minute = 15;
-		} else if (between(this.minute, 30, 44)) {
-			this.minute = 30;
-		}
-		return this;
-	}
-
-	/**
-	 * 指定された数値間か判定
-	 * 
-	 * @param minute
-	 * @param a
-	 * @param b
-	 * 
-	 * @return boolean
-	 */
-	private boolean between(int minute, int a, int b) {
-		if (a > b) {
-			int tmp = b;
-			b = a;
-			a = tmp;
+		if (isBlank()) {
+			return this;
 		}
-		return (minute >= a && minute <= b);
+		return ofMinutes(Math.floorDiv(minutes, 15) * 15);
 	}
 
 	/**
 	 * 空か判定
-	 * 
+	 *
 	 * @return boolean
 	 */
 	public boolean isEmpty() {
-		return hour == null || minute == null;
+		return isBlank();
 	}
 
 	/**
 	 * 企業の休憩取得時間を考慮
-	 * 
+	 *
 	 * @return
 	 */
 	public String restTimeZone(TrainingTime total, TrainingTime companyRestStartTime,
@@ -413,4 +408,101 @@ public class TrainingTime implements Comparable<TrainingTime>, Serializable {
 		return chinginTime;
 	}
 
+	/**
+	 * 逆シリアル化時は共有インスタンスに置き換える
+	 *
+	 * @return 研修時刻
+	 */
+	private Object readResolve() {
+		return isBlank() ? BLANK : ofMinutes(minutes);
+	}
+
+	/**
+	 * 時分を0時からの分に変換
+	 *
+	 * @param hour
+	 * @param minute 0～59
+	 * @return 0時からの分
+	 * @throws IllegalArgumentException 時分が不正な場合
+	 */
+	private static int toMinutes(Integer hour, Integer minute) {
+		if (hour == null || minute == null || minute > 59 || minute < 0) {
+			throw new IllegalArgumentException();
+		}
+		return hour * 60 + minute;
+	}
+
+	/**
+	 * 文字列を0時からの分に変換（文字列の生成・正規表現を使用しない）<br>
+	 * 従来の split(":") と同様に末尾の":"は無視する。
+	 *
+	 * @param timeStr 空でない文字列
+	 * @return 0時からの分（有効フォーマットでない場合、またはintで表せない場合INVALID_VALUE）
+	 */
+	private static int parseMinutes(String timeStr) {
+		int length = timeStr.length();
+		int hourEnd;
+		int minuteStart;
+		if (timeStr.indexOf(':') >= 0) {
+			// H:m形式（時・分とも1桁以上の数字）
+			while (length > 0 && timeStr.charAt(length - 1) == ':') {
+				length--;
+			}
+			int colon = timeStr.indexOf(':');
+			int nextColon = timeStr.indexOf(':', colon + 1);
+			if (colon <= 0 || colon >= length - 1 || (nextColon >= 0 && nextColon < length)) {
+				return INVALID_VALUE;
+			}
+			hourEnd = colon;
+			minuteStart = colon + 1;
+		} else if (length == 4) {
+			// 数値4桁の場合
+			hourEnd = 2;
+			minuteStart = 2;
+		} else {
+			return INVALID_VALUE;
+		}
+		long hour = parseDigits(timeStr, 0, hourEnd);
+		long minute = parseDigits(timeStr, minuteStart, length);
+		if (hour < 0 || minute < 0 || minute > 59) {
+			return INVALID_VALUE;
+		}
+		long value = hour * 60 + minute;
+		return value > Integer.MAX_VALUE ? INVALID_VALUE : (int) value;
+	}
+
+	/**
+	 * 数字のみの範囲を数値に変換
+	 *
+	 * @param str
+	 * @param start
+	 * @param end
+	 * @return 数値（数字以外を含む場合-1、intの範囲を超える場合はInteger.MAX_VALUE + 1）
+	 */
+	private static long parseDigits(String str, int start, int end) {
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			char c = str.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			// 桁数が多い場合も桁あふれさせず、範囲外として扱う
+			value = Math.min(value * 10 + (c - '0'), Integer.MAX_VALUE + 1L);
+		}
+		return value;
+	}
+
+	/**
+	 * HH:mm形式への変換
+	 *
+	 * @param minutes
+	 * @return HH:mm形式（未設定の場合は空文字）
+	 */
+	private static String format(int minutes) {
+		if (minutes == BLANK_VALUE) {
+			return "";
+		}
+		return String.format("%1$02d:%2$02d", Math.floorDiv(minutes, 60), Math.floorMod(minutes, 60));
+	}
+
 }
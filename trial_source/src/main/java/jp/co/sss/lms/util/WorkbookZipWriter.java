@@ -0,0 +1,179 @@
+package jp.co.sss.lms.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.dto.WorkbookDto;
+
+/**
+ * ワークブックZIP出力ユーティリティ<br>
+ * ワークブックを上限付きのスレッドプールで並行して生成し、生成順にZIPエントリへ直接書き込む。
+ * 同時に保持するワークブックは先読み件数までに制限される。
+ * 
+ * @author 東京ITスクール
+ */
+@Component
+public class WorkbookZipWriter {
+
+	/** ワークブック生成スレッド数 */
+	@Value("${setting.workbook.zip.thread:4}")
+	private int threadCount;
+
+	/** ワークブック生成用スレッドプール */
+	private ExecutorService executor;
+
+	/**
+	 * スレッドプールの生成
+	 */
+	@PostConstruct
+	public void init() {
+		AtomicInteger threadNo = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread thread = new Thread(r, "workbook-zip-" + threadNo.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * スレッドプールの停止
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * ワークブックの一括ダウンロード
+	 * 
+	 * @param zipName     ZIPファイル名（拡張子・日時なし）
+	 * @param sourceList  ワークブックの生成元リスト
+	 * @param workbookFactory 生成元からワークブックを生成する処理
+	 * @param response
+	 * @throws IOException
+	 */
+	public <T> void download(String zipName, List<T> sourceList,
+			Function<T, WorkbookDto> workbookFactory, HttpServletResponse response)
+			throws IOException {
+		String fileName = new String((zipName + new Date().getTime()).getBytes("Windows-31J"),
+				"ISO-8859-1") + ".zip";
+		response.setContentType("application/octet-stream");
+		response.setHeader("Content-Disposition", "filename=\"" + fileName + "\"");
+
+		int window = threadCount * 2;
+		Deque<Future<WorkbookDto>> pending = new ArrayDeque<>();
+		Iterator<T> sourceIt = sourceList.iterator();
+		try (ZipOutputStream zos = new ZipOutputStream(response.getOutputStream(),
+				Charset.forName("MS932"))) {
+			OutputStream entryOut = new EntryOutputStream(zos);
+			Set<String> wbNameSet = new HashSet<>();
+			while (pending.size() < window && sourceIt.hasNext()) {
+				T source = sourceIt.next();
+				pending.add(executor.submit(() -> workbookFactory.apply(source)));
+			}
+			while (!pending.isEmpty()) {
+				WorkbookDto workbookDto = await(pending.poll());
+				// 書き込み中に次のワークブックの生成を開始する
+				if (sourceIt.hasNext()) {
+					T source = sourceIt.next();
+					pending.add(executor.submit(() -> workbookFactory.apply(source)));
+				}
+				zos.putNextEntry(new ZipEntry(getUniqueName(workbookDto.getWbName(), wbNameSet)));
+				workbookDto.getWb().write(entryOut);
+				zos.closeEntry();
+			}
+		} finally {
+			for (Future<WorkbookDto> future : pending) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * ワークブックの生成完了を待機
+	 * 
+	 * @param future
+	 * @return ワークブックDTO
+	 * @throws IOException
+	 */
+	private WorkbookDto await(Future<WorkbookDto> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * 重複しないファイル名の取得<br>
+	 * 同名のファイルがあった場合ファイル名末尾に「(n)」を付与する
+	 * 
+	 * @param wbName
+	 * @param wbNameSet 出力済みのファイル名
+	 * @return ファイル名
+	 */
+	static String getUniqueName(String wbName, Set<String> wbNameSet) {
+		String name = wbName;
+		int count = 1;
+		while (!wbNameSet.add(name)) {
+			name = FileUtil.getPrefix(wbName) + "(" + count + ")." + FileUtil.getSuffix(wbName);
+			count++;
+		}
+		return name;
+	}
+
+	/**
+	 * ZIPエントリ書込み用ストリーム<br>
+	 * ワークブックの書込み後に閉じられてもZIPストリームは閉じない。
+	 */
+	static final class EntryOutputStream extends FilterOutputStream {
+
+		EntryOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.flush();
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package jp.co.sss.lms.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jp.co.sss.lms.service.ReportService;
+
+/**
+ * レポートコントローラーの試験<br>
+ * 一括ダウンロードのパラメータチェックを検証する。
+ * パラメータチェックはサービスの実処理を使用し、ダウンロード処理のみ差し替える。
+ *
+ * @author 東京ITスクール
+ */
+@SpringBootTest
+public class ReportControllerTest {
+
+	private MockMvc mockMvc;
+
+	@Spy
+	private ReportService reportService;
+
+	@InjectMocks
+	private ReportController reportController;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		mockMvc = MockMvcBuilders.standaloneSetup(reportController).build();
+		doNothing().when(reportService).downloadList(any(), any(HttpServletResponse.class));
+	}
+
+	/**
+	 * Case.1_1 一括ダウンロード（件数不一致）<br>
+	 * ■試験パラメータ：日報ID2件、日報提出ID1件<br>
+	 * ■試験観点：<br>
+	 * ・HTTPステータスが「400」であること<br>
+	 * ・ダウンロード処理が呼び出されないこと<br>
+	 */
+	@Test
+	public void testCase1_1() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/report/downloadList")
+				.param("dailyReportIdList", "1", "2")
+				.param("dailyReportSubmitIdList", "10"))
+				.andExpect(status().isBadRequest());
+
+		verify(reportService, never()).downloadList(any(), any(HttpServletResponse.class));
+	}
+
+	/**
+	 * Case.1_2 一括ダウンロード（数値以外のID）<br>
+	 * ■試験パラメータ：日報提出IDに数値以外を含む<br>
+	 * ■試験観点：<br>
+	 * ・HTTPステータスが「400」であること<br>
+	 * ・ダウンロード処理が呼び出されないこと<br>
+	 */
+	@Test
+	public void testCase1_2() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/report/downloadList")
+				.param("dailyReportIdList", "1", "2")
+				.param("dailyReportSubmitIdList", "10", "x"))
+				.andExpect(status().isBadRequest());
+
+		verify(reportService, never()).downloadList(any(), any(HttpServletResponse.class));
+	}
+
+	/**
+	 * Case.1_3 一括ダウンロード（正常）<br>
+	 * ■試験パラメータ：日報ID2件、日報提出ID2件<br>
+	 * ■試験観点：<br>
+	 * ・HTTPステータスが「200」であること<br>
+	 * ・日報IDと日報提出IDの組がダウンロード処理に渡されること<br>
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testCase1_3() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.post("/report/downloadList")
+				.param("dailyReportIdList", "1", "2")
+				.param("dailyReportSubmitIdList", "10", "20"))
+				.andExpect(status().isOk());
+
+		ArgumentCaptor<List<Integer[]>> captor = ArgumentCaptor.forClass(List.class);
+		verify(reportService).downloadList(captor.capture(), any(HttpServletResponse.class));
+		List<Integer[]> idPairList = captor.getValue();
+		assertEquals(2, idPairList.size());
+		assertArrayEquals(new Integer[] { 1, 10 }, idPairList.get(0));
+		assertArrayEquals(new Integer[] { 2, 20 }, idPairList.get(1));
+	}
+
+}
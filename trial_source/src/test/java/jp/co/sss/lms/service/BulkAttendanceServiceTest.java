@@ -0,0 +1,297 @@
+package jp.co.sss.lms.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jp.co.sss.lms.dto.CourseAttendanceStudentDto;
+import jp.co.sss.lms.dto.LoginUserDto;
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+import jp.co.sss.lms.form.BulkAttendanceForm;
+import jp.co.sss.lms.form.BulkDailyAttendanceForm;
+import jp.co.sss.lms.mapper.TStudentAttendanceMapper;
+import jp.co.sss.lms.util.AttendanceManagementCache;
+import jp.co.sss.lms.util.AttendanceNotEnteredCache;
+import jp.co.sss.lms.util.AttendanceUtil;
+import jp.co.sss.lms.util.Constants;
+import jp.co.sss.lms.util.MessageUtil;
+
+/**
+ * 勤怠情報（一括登録）サービスの試験<br>
+ * 行ごとの入力チェックと、エラーのある行を除いた登録を検証する。
+ *
+ * @author 東京ITスクール
+ */
+@SpringBootTest
+public class BulkAttendanceServiceTest {
+
+	/** コースID */
+	private static final Integer COURSE_ID = 1;
+	/** コースの受講生のLMSユーザーID */
+	private static final Integer STUDENT_A = 101;
+	private static final Integer STUDENT_B = 102;
+
+	@Autowired
+	private MessageUtil messageUtil;
+
+	@Mock
+	private TStudentAttendanceMapper tStudentAttendanceMapper;
+	@Mock
+	private AttendanceUtil attendanceUtil;
+	@Mock
+	private AttendanceNotEnteredCache attendanceNotEnteredCache;
+	@Mock
+	private AttendanceManagementCache attendanceManagementCache;
+
+	@InjectMocks
+	private BulkAttendanceService bulkAttendanceService;
+
+	private final Date trainingDate = new Date();
+
+	@BeforeEach
+	public void setup() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(bulkAttendanceService, "messageUtil", messageUtil);
+		LoginUserDto loginUserDto = new LoginUserDto();
+		loginUserDto.setLmsUserId(1);
+		loginUserDto.setAccountId(1);
+		ReflectionTestUtils.setField(bulkAttendanceService, "loginUserDto", loginUserDto);
+
+		// 研修日で、コースの受講生は2名
+		when(attendanceUtil.isWorkDay(COURSE_ID, trainingDate)).thenReturn(true);
+		when(attendanceUtil.getStatus(any(), any())).thenReturn(AttendanceStatusEnum.NONE);
+		when(tStudentAttendanceMapper.countCourseStudent(COURSE_ID, null,
+				Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE)).thenReturn(2);
+		List<CourseAttendanceStudentDto> studentList = new ArrayList<>();
+		studentList.add(createStudent(STUDENT_A, "受講生A"));
+		studentList.add(createStudent(STUDENT_B, "受講生B"));
+		when(tStudentAttendanceMapper.getCourseStudentList(COURSE_ID, null,
+				Constants.CODE_VAL_ROLL_STUDENT, Constants.DB_FLG_FALSE, 0, 2)).thenReturn(studentList);
+		when(tStudentAttendanceMapper.insertBulk(anyList()))
+				.thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+	}
+
+	/**
+	 * Case.1_1 画面入力の一括登録_正常終了<br>
+	 * ■試験観点：<br>
+	 * ・エラーがないこと<br>
+	 * ・入力のある行のみ一括登録されること（未入力の行は登録しない）<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "受講生A", "09:00", "18:00", 30, false, "備考"),
+				createRow(STUDENT_B, "受講生B", "", "", null, false, "")), trainingDate, errorList);
+
+		assertTrue(errorList.isEmpty());
+		assertEquals(1, count);
+		List<TStudentAttendance> insertList = captureInsertList();
+		assertEquals(1, insertList.size());
+		assertEquals(STUDENT_A, insertList.get(0).getLmsUserId());
+		assertEquals("09:00", insertList.get(0).getTrainingStartTime());
+		assertEquals("18:00", insertList.get(0).getTrainingEndTime());
+		assertEquals(30, insertList.get(0).getBlankTime());
+	}
+
+	/**
+	 * Case.1_2 欠席かつ勤怠時刻の入力あり<br>
+	 * ■試験観点：<br>
+	 * ・該当行のエラーメッセージが返却され、他の行は登録されること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "受講生A", "09:00", "18:00", null, true, ""),
+				createRow(STUDENT_B, "受講生B", "", "", null, true, "")), trainingDate, errorList);
+
+		assertEquals(List.of(messageUtil.getMessage(Constants.VALID_KEY_ABSENTANDTRAININGTIMEEXISTSBULK,
+				new String[] { "受講生A" })), errorList);
+		assertEquals(1, count);
+		List<TStudentAttendance> insertList = captureInsertList();
+		assertEquals(STUDENT_B, insertList.get(0).getLmsUserId());
+		assertEquals(AttendanceStatusEnum.ABSENT.code, insertList.get(0).getStatus());
+	}
+
+	/**
+	 * Case.1_3 退勤時刻が出勤時刻より前<br>
+	 * ■試験観点：<br>
+	 * ・該当行のエラーメッセージが返却されること<br>
+	 * ・登録されないこと<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "受講生A", "18:00", "09:00", null, false, "")), trainingDate,
+				errorList);
+
+		assertEquals(List.of(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_TRAININGTIMERANGEBULK,
+				new String[] { "受講生A" })), errorList);
+		assertEquals(0, count);
+		verify(tStudentAttendanceMapper, never()).insertBulk(anyList());
+	}
+
+	/**
+	 * Case.1_4 中抜け時間が勤務時間を超過<br>
+	 * ■試験観点：<br>
+	 * ・勤務時間を超える中抜け時間はエラーとなること<br>
+	 * ・勤務時間と等しい中抜け時間はエラーとならないこと<br>
+	 */
+	@Test
+	public void testCase1_4() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "受講生A", "09:00", "10:00", 61, false, ""),
+				createRow(STUDENT_B, "受講生B", "09:00", "10:00", 60, false, "")), trainingDate,
+				errorList);
+
+		assertEquals(List.of("受講生A：" + messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_BLANKTIMEERROR)),
+				errorList);
+		assertEquals(1, count);
+		assertEquals(STUDENT_B, captureInsertList().get(0).getLmsUserId());
+	}
+
+	/**
+	 * Case.1_5 LMSユーザーIDの重複・コース外の受講生<br>
+	 * ■試験観点：<br>
+	 * ・同一受講生の2行目はエラーとなること<br>
+	 * ・コースの受講生でないLMSユーザーIDはエラーとなること<br>
+	 * ・最初の行のみ登録されること<br>
+	 */
+	@Test
+	public void testCase1_5() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "1行目", "09:00", "18:00", null, false, ""),
+				createRow(STUDENT_A, "2行目", "09:00", "17:00", null, false, ""),
+				createRow(999, "3行目", "09:00", "18:00", null, false, "")), trainingDate, errorList);
+
+		assertEquals(List.of(
+				messageUtil.getMessage(Constants.VALID_KEY_INVALID, new String[] { "2行目のLMSユーザーID" }),
+				messageUtil.getMessage(Constants.VALID_KEY_INVALID, new String[] { "3行目のLMSユーザーID" })),
+				errorList);
+		assertEquals(1, count);
+		List<TStudentAttendance> insertList = captureInsertList();
+		assertEquals(1, insertList.size());
+		assertEquals("18:00", insertList.get(0).getTrainingEndTime());
+	}
+
+	/**
+	 * Case.1_6 時刻形式・出勤時刻未入力<br>
+	 * ■試験観点：<br>
+	 * ・時刻形式でない入力はエラーとなること<br>
+	 * ・退勤時刻のみの入力はエラーとなること<br>
+	 */
+	@Test
+	public void testCase1_6() {
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.regist(createForm(
+				createRow(STUDENT_A, "受講生A", "9:60", "18:00", null, false, ""),
+				createRow(STUDENT_B, "受講生B", "", "18:00", null, false, "")), trainingDate, errorList);
+
+		assertEquals(List.of(
+				messageUtil.getMessage(Constants.VALID_KEY_TRAININGTIMEBULK, new String[] { "受講生A" }),
+				messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_PUNCHINEMPTYBULK,
+						new String[] { "受講生B" })),
+				errorList);
+		assertEquals(0, count);
+	}
+
+	/**
+	 * Case.2_1 CSVの一括登録<br>
+	 * ■試験パラメータ：<br>
+	 * ・2行目：ダブルクォートで囲んだカンマ・ダブルクォートを含む備考<br>
+	 * ・3行目：囲まずにカンマを含む備考<br>
+	 * ・4行目：列数不足<br>
+	 * ■試験観点：<br>
+	 * ・備考のカンマ・ダブルクォートがそのまま登録されること<br>
+	 * ・形式が不正な行は行番号付きのエラーとなること<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		String csv = "LMSユーザーID,出勤時刻,退勤時刻,中抜け時間,欠席,備考\n"
+				+ STUDENT_A + ",09:00,18:00,,0,\"通院, \"\"午後\"\"\"\n"
+				+ STUDENT_B + ",09:00,18:00,15,0,遅延, 電車\n"
+				+ "999,09:00\n";
+		MockMultipartFile csvFile = new MockMultipartFile("csvFile", "attendance.csv", "text/csv",
+				csv.getBytes(StandardCharsets.UTF_8));
+		List<String> errorList = new ArrayList<>();
+		int count = bulkAttendanceService.registCsv(COURSE_ID, trainingDate, csvFile, errorList);
+
+		assertEquals(List.of(messageUtil.getMessage(Constants.VALID_KEY_ATTENDANCE_CSVUPLOAD_INVALID,
+				new String[] { "4" })), errorList);
+		assertEquals(2, count);
+		List<TStudentAttendance> insertList = captureInsertList();
+		assertEquals("通院, \"午後\"", insertList.get(0).getNote());
+		assertEquals("遅延, 電車", insertList.get(1).getNote());
+		assertEquals(15, insertList.get(1).getBlankTime());
+	}
+
+	/**
+	 * 一括登録された勤怠情報の取得
+	 *
+	 * @return 一括登録された勤怠情報
+	 */
+	@SuppressWarnings("unchecked")
+	private List<TStudentAttendance> captureInsertList() {
+		ArgumentCaptor<List<TStudentAttendance>> captor = ArgumentCaptor.forClass(List.class);
+		verify(tStudentAttendanceMapper).insertBulk(captor.capture());
+		return captor.getValue();
+	}
+
+	/**
+	 * 受講生の作成
+	 */
+	private CourseAttendanceStudentDto createStudent(Integer lmsUserId, String userName) {
+		CourseAttendanceStudentDto student = new CourseAttendanceStudentDto();
+		student.setLmsUserId(lmsUserId);
+		student.setUserName(userName);
+		return student;
+	}
+
+	/**
+	 * 勤怠一括登録フォームの作成
+	 */
+	private BulkAttendanceForm createForm(BulkDailyAttendanceForm... rows) {
+		BulkAttendanceForm form = new BulkAttendanceForm();
+		form.setCourseId(COURSE_ID);
+		form.setAttendanceList(new ArrayList<>(List.of(rows)));
+		return form;
+	}
+
+	/**
+	 * 受講生ごとの勤怠フォームの作成
+	 */
+	private BulkDailyAttendanceForm createRow(Integer lmsUserId, String userName, String startTime,
+			String endTime, Integer blankTime, boolean absent, String note) {
+		BulkDailyAttendanceForm row = new BulkDailyAttendanceForm();
+		row.setLmsUserId(lmsUserId);
+		row.setUserName(userName);
+		row.setTrainingStartTime(startTime);
+		row.setTrainingEndTime(endTime);
+		row.setBlankTime(blankTime);
+		row.setAbsentFlg(absent);
+		row.setNote(note);
+		return row;
+	}
+
+}
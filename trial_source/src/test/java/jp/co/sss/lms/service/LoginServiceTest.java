@@ -5,8 +5,6 @@ import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Method;
 import java.text.ParseException;
-import java.util.Calendar;
-import java.util.Date;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jp.co.sss.lms.dto.LoginUserDto;
 import jp.co.sss.lms.entity.LoginUser;
@@ -25,8 +24,10 @@ import jp.co.sss.lms.mapper.LoginMapper;
 import jp.co.sss.lms.mapper.MUserMapper;
 import jp.co.sss.lms.util.Constants;
 import jp.co.sss.lms.util.DateUtil;
+import jp.co.sss.lms.util.LoginAttemptTracker;
+import jp.co.sss.lms.util.LoginUserCache;
 import jp.co.sss.lms.util.MessageUtil;
-import jp.co.sss.lms.util.PasswordUtil;
+import jp.co.sss.lms.util.PasswordHashUtil;
 
 /**
  * JUnitによる機能試験(ホワイトボックステスト)_テストコードサンプル<br>
@@ -37,6 +38,9 @@ import jp.co.sss.lms.util.PasswordUtil;
 @SpringBootTest
 public class LoginServiceTest {
 
+	/** 接続元IP */
+	private static final String REMOTE_ADDR = "127.0.0.1";
+
 	@Autowired
 	private LoginUserDto loginUserDto;
 	@Autowired
@@ -47,22 +51,31 @@ public class LoginServiceTest {
 	@Mock
 	private HttpSession session;
 	@Mock
+	private HttpServletRequest request;
+	@Mock
 	private MUserMapper mUserMapper;
 	@Mock
-	private PasswordUtil passwordUtil;
+	private PasswordHashUtil passwordHashUtil;
 	@Mock
 	private LoginMapper loginMapper;
+	@Mock
+	private LoginUserCache loginUserCache;
 	
 	@InjectMocks
 	private LoginService loginService;
+
+	private LoginAttemptTracker loginAttemptTracker;
 	
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
     	// テスト対象クラスのフィールドは以下の記述で任意に設定することが出来る 
     	// ReflectionTestUtils.setField(第1引数：試験対象のクラス 第2引数：セットしたいフィールド名 第3引数：セットする値)
-		ReflectionTestUtils.setField(loginService, "lockCount", 3); 
-		ReflectionTestUtils.setField(loginService, "lockMinute", 1); 
+		loginAttemptTracker = new LoginAttemptTracker();
+		ReflectionTestUtils.setField(loginAttemptTracker, "lockCount", 3); 
+		ReflectionTestUtils.setField(loginAttemptTracker, "lockMinute", 1); 
+		ReflectionTestUtils.setField(loginService, "loginAttemptTracker", loginAttemptTracker);
+		when(request.getRemoteAddr()).thenReturn(REMOTE_ADDR);
 		
 		// 既に完成されているクラスに対しても、@BeforEachで設定することで、各テストメソッドで呼び出す処理を省略出来る。
 		ReflectionTestUtils.setField(loginService, "messageUtil", messageUtil);
@@ -81,15 +94,13 @@ public class LoginServiceTest {
 	 * ■試験パラメータ： 
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>
-	 * 　・ログインユーザーDTO.パスワードロック回数:1<br>
-	 * 　・ログインユーザーDTO.パスワードロック時刻:null<br>
+	 * 　・ログイン試行トラッカー.ログイン失敗回数:1<br>
 	 * 　・ログインユーザーエンティティ.権限：受講生
 	 * 　・ログインユーザーエンティティ.非表示フラグ：true
 	 * ■試験観点：<br>
 	 *  ・正常終了すること<br>
 	 *  ・メッセージ出力：「(空文字)」であること<br>
-	 *  ・ログインユーザーDTO.パスワードロック時刻:"(空文字)"であること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
+	 * 　・ログイン失敗回数がリセットされ、その後2回失敗してもロックされないこと<br>
 	 * 
 	 * */
 	@Test
@@ -99,9 +110,8 @@ public class LoginServiceTest {
 		String loginId = "loginId";
 		String password = "password"; 
 		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
+		// ログイン失敗回数を1回とする
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 
 		// モックの戻り値となるテストデータを取得
@@ -110,23 +120,22 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
-		when(passwordUtil.getSaltedAndStrechedPassword
-				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
-		when(loginMapper.getLoginDetailByLoginIdAndPassword
-				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		loginUser.setPassword("aaa");
+		when(loginMapper.getLoginDetailByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(passwordHashUtil.matches
+				(password, loginId, "aaa")).thenReturn(true); //　パスワード照合処理のモック
 		
 		// 期待値の設定
 		String expected_message = "";
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
 
 		//　試験実行
 		String actual_message = loginService.getLoginInfo(loginId, password);
 		
 		// 検証処理
 		assertEquals(expected_message, actual_message);
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		assertFalse(loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR));
+		assertFalse(loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR));
 	}
 	
     /**
@@ -136,13 +145,11 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>
-	 * 　・ログインユーザーDTO.パスワードロック回数:1<br>
-	 * 　・ログインユーザーDTO.パスワードロック時刻:現在時刻-2分<br>
+	 * 　・ログイン試行トラッカー：ロック済み、ロック時間経過後<br>
 	 * ■試験観点：<br>
 	 *  ・正常終了すること<br>
 	 *  ・メッセージ出力：「(空文字)」であること<br>
-	 *  ・ログインユーザーDTO.パスワードロック時刻:"(空文字)"であること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
+	 *  ・ロックが解除されていること<br>
      * @throws ParseException <br>
 	 * 
 	 * */
@@ -153,17 +160,11 @@ public class LoginServiceTest {
 		String loginId = "loginId";
 		String password = "password"; 
 				
-		// checkLockTime()がtrueとなるパラメータ設定
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(new Date());
-		calendar.add(Calendar.MINUTE, -2);
-		Date date = dateUtil.calenderToTimestamp(calendar);
-		String ngDate = dateUtil.dateToString(date);
-		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(ngDate);
-		
+		// checkLockTime()がtrueとなるパラメータ設定（ロック後、ロック時間を0分にして経過させる）
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		ReflectionTestUtils.setField(loginAttemptTracker, "lockMinute", 0);
 		
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 
@@ -173,23 +174,21 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
-		when(passwordUtil.getSaltedAndStrechedPassword
-				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
-		when(loginMapper.getLoginDetailByLoginIdAndPassword
-				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		loginUser.setPassword("aaa");
+		when(loginMapper.getLoginDetailByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(passwordHashUtil.matches
+				(password, loginId, "aaa")).thenReturn(true); //　パスワード照合処理のモック
 		
 		// 期待値の設定
 		String expected_message = "";
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
 
 		//　試験実行
 		String actual_message = loginService.getLoginInfo(loginId, password);
 		
 		// 検証処理
 		assertEquals(expected_message, actual_message);
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		assertFalse(loginAttemptTracker.isLocked(loginId, REMOTE_ADDR));
 	}
     
     /**
@@ -199,10 +198,11 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>	
-	 *  ・ロック日時：現在時刻-30秒<br>
+	 *  ・ログイン試行トラッカー：同一ログインID・接続元IPで3回失敗しロック済み<br>
 	 * ■試験観点：<br>
 	 * 　・正常終了すること<br>
 	 * 　・メッセージ出力：「規定の回数を超えたため、アカウントにロックがかかりました。しばらくたってから再度お試しください。」であること。<br>
+	 * 　・ログイン情報の取得およびパスワード照合が行われないこと<br>
 	 * 
 	 * */
 	@Test
@@ -213,14 +213,10 @@ public class LoginServiceTest {
 		String password = "password"; 
 		
 		// checkLockTime()がfalseとなるパラメータ設定
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(new Date());
-		calendar.add(Calendar.SECOND, -30);
-		Date date = dateUtil.calenderToTimestamp(calendar);
-		String ngDate = dateUtil.dateToString(date);
-		
-		// ログインユーザーDTO（セッション）に必要な値を対象メソッドのフィールドに格納
-		loginUserDto.setPasswordNgDate(ngDate); 
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);	
 	
 		// 期待値の設定
@@ -231,6 +227,8 @@ public class LoginServiceTest {
 		
 		//　検証処理
 		assertEquals(expected, actual);
+		verify(loginMapper, never()).getLoginDetailByLoginId(any(), any());
+		verify(passwordHashUtil, never()).matches(any(), any(), any());
 	}
 	
     /**
@@ -240,12 +238,12 @@ public class LoginServiceTest {
 	 * ■試験パラメータ：
 	 * 　・ログインID：任意<br>
 	 *　　・パスワード：任意<br>	
-	 *  ・ログインユーザーDTO.パスワードNGカウント:3<br>
+	 *  ・ログイン試行トラッカー.ログイン失敗回数:2<br>
 	 * ■試験観点：<br>
 	 * 　　・正常終了すること<br>
 	 * 　　・メッセージが出力：「規定の回数を超えたため、アカウントにロックがかかりました。しばらくたってから再度お試しください。」であること<br>
-	 * 　　・ログインユーザーDTO.パスワードNGカウント： 4　になること<br>
-	 *　　　・ログインユーザーDTO.パスワードNG日時：Nullでないこと(現在時刻が厳密に計測出来ない為)<br>
+	 * 　　・ログインID・接続元IPの組がロック中になること<br>
+	 * 　　・別の接続元IPからはロックされていないこと<br>
 	 * 
 	 * */
 	@Test
@@ -255,21 +253,21 @@ public class LoginServiceTest {
 		String loginId = "loginFailedId";
 		String password = "loginFailedPassword";
 		
-		// 設定したDtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(3);
+		// ログイン失敗回数を2回とする
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
+		loginAttemptTracker.recordFailure(loginId, REMOTE_ADDR);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
 		
 		// 期待値の設定
 		String expected = messageUtil.getMessage(Constants.VALID_KEY_LOGIN_LOCK);
-		Integer expectedNgCount = 4;
 		
 		// 試験実行
 		String actual = loginService.getLoginInfo(loginId, password);
 		
 		//　検証処理
 		assertEquals(expected, actual);
-		assertEquals(expectedNgCount, loginUserDto.getPasswordNgCount());
-		assertNotNull(loginUserDto.getPasswordNgDate());
+		assertTrue(loginAttemptTracker.isLocked(loginId, REMOTE_ADDR));
+		assertFalse(loginAttemptTracker.isLocked(loginId, "192.168.0.1"));
 	}
 	
     /**
@@ -282,7 +280,7 @@ public class LoginServiceTest {
 	 * ■試験観点：<br>
 	 * 　　・正常終了すること<br>
 	 * 　　・メッセージ出力：「ログインに失敗しました。」であること<br>
-	 * 　　・ログインユーザーDTO.パスワードNGカウント：1であること<br>
+	 * 　　・ロックされていないこと<br>
 	 * 
 	　* */
 	@Test
@@ -290,7 +288,6 @@ public class LoginServiceTest {
         
  		// 期待値の設定
 		String expected_message = messageUtil.getMessage(Constants.VALID_KEY_LOGIN);
-		Integer expectedNgCount = 1;
 		
 		// メソッド実行に必要な引数のパラメータ設定
 		String loginId = "LoginFailedId";
@@ -304,7 +301,7 @@ public class LoginServiceTest {
 		
 		//　検証処理
 		assertEquals(expected_message, actual);
-		assertEquals(expectedNgCount, loginUserDto.getPasswordNgCount());
+		assertFalse(loginAttemptTracker.isLocked(loginId, REMOTE_ADDR));
 	}
 	
     /**
@@ -337,14 +334,13 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_FALSE);
 		
 		// モック対象メソッドの返却値を設定
-		when(passwordUtil.getSaltedAndStrechedPassword
-				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
-		when(loginMapper.getLoginDetailByLoginIdAndPassword
-				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		loginUser.setPassword("aaa");
+		when(loginMapper.getLoginDetailByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(passwordHashUtil.matches
+				(password, loginId, "aaa")).thenReturn(true); //　パスワード照合処理のモック
 		
 		// Dtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 		
 		// 試験実行
@@ -384,15 +380,14 @@ public class LoginServiceTest {
 		loginUser.setHiddenFlg(Constants.DB_HIDDEN_FLG_TRUE);
 		
 		// モック対象メソッドの返却値を設定
-		when(passwordUtil.getSaltedAndStrechedPassword
-				(password, loginId)).thenReturn("aaa"); //　パスワードソルト処理のモック
-		when(loginMapper.getLoginDetailByLoginIdAndPassword
-				(loginId, "aaa", Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		loginUser.setPassword("aaa");
+		when(loginMapper.getLoginDetailByLoginId
+				(loginId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(passwordHashUtil.matches
+				(password, loginId, "aaa")).thenReturn(true); //　パスワード照合処理のモック
 		
 		
 		// Dtoを試験対象クラスのフィールドに設定する
-		loginUserDto.setPasswordNgCount(1);
-		loginUserDto.setPasswordNgDate(null);
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto); 
 		
 		// 試験実行
@@ -411,16 +406,14 @@ public class LoginServiceTest {
 	 *　・(モック)ログインユーザーエンティティ.ユーザーID：1<br>
 	 * ■試験観点：<br>
 	 * 　・正常終了すること<br>
-	 * 　・ログインユーザーDTO.パスワードNGカウント：0であること<br>
-	 * 　・ログインユーザーDTO.パスワードNG日付：""であること<br>
+	 * 　・ログインユーザーDTO.ユーザーID：1であること<br>
 	 * 
 	 * */
 	@Test
 	public void testCase1_8() throws Exception{
 		
 		// 期待値の設定
-		String expected_NgDate = "";
-		Integer expected_NgCount = 0;
+		Integer expected_userId = 1;
 		
 		//試験パラメータ設定
 		Integer userId = 1;
@@ -430,8 +423,7 @@ public class LoginServiceTest {
 		loginUser.setUserId(userId);
 		
 		// モック対象メソッドの返却値を設定
-		when(loginMapper.getLoginDetailByUserId
-				(userId, Constants.DB_FLG_FALSE)).thenReturn(loginUser); // ログインユーザー取得処理のモック
+		when(loginUserCache.getByUserId(userId)).thenReturn(loginUser); // ログインユーザー取得処理のモック
 		
 		// Dtoを試験対象クラスのフィールドに設定する
 		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
@@ -439,8 +431,7 @@ public class LoginServiceTest {
 		loginService.getLoginId(userId);
 		
 		// 検証処理
-		assertEquals(expected_NgDate, loginUserDto.getPasswordNgDate());
-		assertEquals(expected_NgCount, loginUserDto.getPasswordNgCount());
+		assertEquals(expected_userId, loginUserDto.getUserId());
 	}
 	
     /**
@@ -475,7 +466,7 @@ public class LoginServiceTest {
 	 * Case.xx ログインサービス試験　アカウントNG回数チェック(リフレクションを用いたサンプル)<br>
 	 * <br>
 	 * 対象メソッド：checkLockCount() ※privateメソッド<br>
-	 * 試験パラメータ：ログインユーザDto.パスワードNG回数　= 0<br>
+	 * 試験パラメータ：ログイン試行トラッカー.ログイン失敗回数　= 0<br>
 	 * 試験観点：<br>
 	 * 　・正常終了<br>
 	 * 　・戻り値がtrueであること<br>
@@ -491,15 +482,12 @@ public class LoginServiceTest {
 	public void testCase4_1() throws Exception {
 		
 		//試験パラメータ設定
-		loginUserDto.setPasswordNgCount(0);
-		
-		// サービス内のloginUserDtoフィールドに値を設定する
-		ReflectionTestUtils.setField(loginService, "loginUserDto", loginUserDto);
+		String loginId = "loginId";
 		
 		// privateメソッドはリフレクションを使用することでアクセス出来る。引数がある場合、引数分の型のクラスを指定する
-		Method method = LoginService.class.getDeclaredMethod("checkLockCount"); // 対象のprivateメソッドを指定
+		Method method = LoginService.class.getDeclaredMethod("checkLockCount", String.class); // 対象のprivateメソッドを指定
 		method.setAccessible(true); // privateメソッドへのアクセスを許可
-		boolean actual = (boolean)method.invoke(loginService); // 該当メソッドを実行
+		boolean actual = (boolean)method.invoke(loginService, loginId); // 該当メソッドを実行
         
 		// 検証処理
 		assertTrue(actual);
@@ -0,0 +1,190 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Date;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jp.co.sss.lms.entity.TStudentAttendance;
+import jp.co.sss.lms.enums.AttendanceStatusEnum;
+
+/**
+ * コース勤怠集計の試験<br>
+ * DBを使用しないため、検索結果の代わりに勤怠情報を1件ずつ渡して集計結果を検証する。
+ *
+ * @author 東京ITスクール
+ */
+public class CourseAttendanceAggregatorTest {
+
+	/** 1日（ミリ秒） */
+	private static final long DAY = 24L * 60 * 60 * 1000;
+	/** 研修日（3日間） */
+	private static final long[] TRAINING_DATES = { 10 * DAY, 11 * DAY, 12 * DAY };
+	/** 受講生のLMSユーザーID（昇順） */
+	private static final int[] LMS_USER_IDS = { 101, 102, 103 };
+
+	private CourseAttendanceAggregator aggregator;
+
+	@BeforeEach
+	public void setup() {
+		aggregator = new CourseAttendanceAggregator(LMS_USER_IDS, TRAINING_DATES);
+	}
+
+	/**
+	 * Case.1_1 勤怠情報なし<br>
+	 * ■試験観点：<br>
+	 * ・全ての受講生・研修日が勤怠情報なしであること<br>
+	 * ・件数・中抜け時間合計が0であること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		for (int student = 0; student < LMS_USER_IDS.length; student++) {
+			for (int day = 0; day < TRAINING_DATES.length; day++) {
+				assertEquals(CourseAttendanceAggregator.STATUS_NO_RECORD,
+						aggregator.getStatus(student, day));
+			}
+			assertEquals(0, aggregator.getTardyCount(student));
+			assertEquals(0, aggregator.getLeavingEarlyCount(student));
+			assertEquals(0, aggregator.getAbsentCount(student));
+			assertEquals(0, aggregator.getNotEnteredCount(student));
+			assertEquals(0, aggregator.getBlankTimeTotal(student));
+		}
+	}
+
+	/**
+	 * Case.1_2 ステータスごとの集計<br>
+	 * ■試験パラメータ：<br>
+	 * ・受講生101：遅刻、早退、遅刻＆早退<br>
+	 * ・受講生102：出席、欠席、退勤時刻未入力<br>
+	 * ・受講生103：2日目のみ出席<br>
+	 * ■試験観点：<br>
+	 * ・受講生×研修日のステータスが設定されること<br>
+	 * ・遅刻＆早退は遅刻・早退の両方に計上されること<br>
+	 * ・欠席・未入力はそれぞれの件数に計上されること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		handle(101, 0, "09:30", "18:00", AttendanceStatusEnum.TARDY, null);
+		handle(101, 1, "09:00", "17:00", AttendanceStatusEnum.LEAVING_EARLY, null);
+		handle(101, 2, "09:30", "17:00", AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY, null);
+		handle(102, 0, "09:00", "18:00", AttendanceStatusEnum.NONE, null);
+		handle(102, 1, "", "", AttendanceStatusEnum.ABSENT, null);
+		handle(102, 2, "09:00", "", AttendanceStatusEnum.NONE, null);
+		handle(103, 1, "09:00", "18:00", null, null);
+
+		assertEquals(AttendanceStatusEnum.TARDY.code.byteValue(), aggregator.getStatus(0, 0));
+		assertEquals(AttendanceStatusEnum.LEAVING_EARLY.code.byteValue(), aggregator.getStatus(0, 1));
+		assertEquals(AttendanceStatusEnum.TARDY_AND_LEAVING_EARLY.code.byteValue(),
+				aggregator.getStatus(0, 2));
+		assertEquals(2, aggregator.getTardyCount(0));
+		assertEquals(2, aggregator.getLeavingEarlyCount(0));
+		assertEquals(0, aggregator.getAbsentCount(0));
+		assertEquals(0, aggregator.getNotEnteredCount(0));
+
+		assertEquals(AttendanceStatusEnum.NONE.code.byteValue(), aggregator.getStatus(1, 0));
+		assertEquals(AttendanceStatusEnum.ABSENT.code.byteValue(), aggregator.getStatus(1, 1));
+		assertEquals(CourseAttendanceAggregator.STATUS_NOT_ENTERED, aggregator.getStatus(1, 2));
+		assertEquals(0, aggregator.getTardyCount(1));
+		assertEquals(0, aggregator.getLeavingEarlyCount(1));
+		assertEquals(1, aggregator.getAbsentCount(1));
+		assertEquals(1, aggregator.getNotEnteredCount(1));
+
+		// ステータス未設定の出席は遅刻早退なしとする
+		assertEquals(CourseAttendanceAggregator.STATUS_NO_RECORD, aggregator.getStatus(2, 0));
+		assertEquals(AttendanceStatusEnum.NONE.code.byteValue(), aggregator.getStatus(2, 1));
+		assertEquals(CourseAttendanceAggregator.STATUS_NO_RECORD, aggregator.getStatus(2, 2));
+	}
+
+	/**
+	 * Case.1_3 中抜け時間の合計<br>
+	 * ■試験観点：<br>
+	 * ・受講生ごとに中抜け時間が合計されること<br>
+	 * ・欠席・未入力の日の中抜け時間も合計されること<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		handle(101, 0, "09:00", "18:00", AttendanceStatusEnum.NONE, 15);
+		handle(101, 1, "09:00", "", AttendanceStatusEnum.NONE, 30);
+		handle(101, 2, "", "", AttendanceStatusEnum.ABSENT, 45);
+		handle(102, 0, "09:00", "18:00", AttendanceStatusEnum.NONE, 60);
+
+		assertEquals(90, aggregator.getBlankTimeTotal(0));
+		assertEquals(60, aggregator.getBlankTimeTotal(1));
+		assertEquals(0, aggregator.getBlankTimeTotal(2));
+	}
+
+	/**
+	 * Case.1_4 集計対象外の勤怠情報<br>
+	 * ■試験パラメータ：<br>
+	 * ・研修日以外の勤怠情報<br>
+	 * ・ページ外の受講生の勤怠情報<br>
+	 * ・同一受講生・研修日の2件目の勤怠情報<br>
+	 * ■試験観点：<br>
+	 * ・集計対象外の勤怠情報は読み飛ばされること<br>
+	 * ・同一受講生・研修日は最初の1件のみ集計されること<br>
+	 */
+	@Test
+	public void testCase1_4() {
+		TStudentAttendance holiday = create(101, 0, "09:30", "18:00", AttendanceStatusEnum.TARDY, 10);
+		holiday.setTrainingDate(new Date(13 * DAY));
+		handle(holiday);
+		handle(999, 0, "09:30", "18:00", AttendanceStatusEnum.TARDY, 10);
+		handle(102, 0, "09:30", "18:00", AttendanceStatusEnum.TARDY, 10);
+		handle(102, 0, "", "", AttendanceStatusEnum.ABSENT, 20);
+
+		assertEquals(CourseAttendanceAggregator.STATUS_NO_RECORD, aggregator.getStatus(0, 0));
+		assertEquals(0, aggregator.getTardyCount(0));
+		assertEquals(0, aggregator.getBlankTimeTotal(0));
+
+		assertEquals(AttendanceStatusEnum.TARDY.code.byteValue(), aggregator.getStatus(1, 0));
+		assertEquals(1, aggregator.getTardyCount(1));
+		assertEquals(0, aggregator.getAbsentCount(1));
+		assertEquals(10, aggregator.getBlankTimeTotal(1));
+	}
+
+	/**
+	 * 勤怠情報の作成
+	 *
+	 * @param lmsUserId
+	 * @param day       研修日の添字
+	 * @param startTime
+	 * @param endTime
+	 * @param status    ステータス（nullの場合は未設定）
+	 * @param blankTime
+	 * @return 勤怠情報
+	 */
+	private TStudentAttendance create(int lmsUserId, int day, String startTime, String endTime,
+			AttendanceStatusEnum status, Integer blankTime) {
+		TStudentAttendance tStudentAttendance = new TStudentAttendance();
+		tStudentAttendance.setLmsUserId(lmsUserId);
+		tStudentAttendance.setTrainingDate(new Date(TRAINING_DATES[day]));
+		tStudentAttendance.setTrainingStartTime(startTime);
+		tStudentAttendance.setTrainingEndTime(endTime);
+		tStudentAttendance.setStatus(status == null ? null : status.code);
+		tStudentAttendance.setBlankTime(blankTime);
+		return tStudentAttendance;
+	}
+
+	/**
+	 * 勤怠情報を作成して集計
+	 */
+	private void handle(int lmsUserId, int day, String startTime, String endTime,
+			AttendanceStatusEnum status, Integer blankTime) {
+		handle(create(lmsUserId, day, startTime, endTime, status, blankTime));
+	}
+
+	/**
+	 * 検索結果1件として集計
+	 *
+	 * @param tStudentAttendance
+	 */
+	private void handle(TStudentAttendance tStudentAttendance) {
+		DefaultResultContext<TStudentAttendance> resultContext = new DefaultResultContext<>();
+		resultContext.nextResultObject(tStudentAttendance);
+		aggregator.handleResult(resultContext);
+	}
+
+}
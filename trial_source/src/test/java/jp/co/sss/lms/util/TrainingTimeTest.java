@@ -0,0 +1,174 @@
+package jp.co.sss.lms.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 研修時刻ユーティリティの試験<br>
+ * 文字列の解析・入力チェックが従来の形式（"H:m"・"HHmm"）と互換であることと、
+ * 比較・加減算・書式を検証する。
+ *
+ * @author 東京ITスクール
+ */
+public class TrainingTimeTest {
+
+	/**
+	 * Case.1_1 有効な形式の解析<br>
+	 * ■試験観点：<br>
+	 * ・"H:m"形式（時・分とも1桁以上）と数値4桁の形式が解析できること<br>
+	 * ・従来のsplit(":")と同様に末尾の":"は無視されること<br>
+	 * ・24時以降も解析できること<br>
+	 */
+	@Test
+	public void testCase1_1() {
+		String[][] cases = {
+				{ "9:00", "09:00" }, { "09:00", "09:00" }, { "18:00", "18:00" }, { "0900", "09:00" },
+				{ "1800", "18:00" }, { "9:5", "09:05" }, { "0:0", "00:00" }, { "23:59", "23:59" },
+				{ "2359", "23:59" }, { "25:00", "25:00" }, { "100:30", "100:30" }, { "9:0005", "09:05" },
+				{ "9:00:", "09:00" }, { "9:00::", "09:00" }, { "35791394:07", "35791394:07" } };
+		for (String[] c : cases) {
+			assertTrue(TrainingTime.isValid(c[0]), c[0]);
+			assertEquals(c[1], TrainingTime.parse(c[0]).getFormattedString(), c[0]);
+			assertEquals(c[1], new TrainingTime(c[0]).toString(), c[0]);
+		}
+	}
+
+	/**
+	 * Case.1_2 無効な形式の解析<br>
+	 * ■試験観点：<br>
+	 * ・入力チェックがfalseとなること<br>
+	 * ・解析時にIllegalArgumentExceptionとなること<br>
+	 */
+	@Test
+	public void testCase1_2() {
+		String[] cases = { "9:60", "0860", "abc", "12:", "9:", ":00", ":", ":::", "9::00", "1:2:3",
+				"900", "09000", "09 00", " 9:00", "9:00 ", "-1:00", "+9:00", "9:-1", "1234:",
+				"١٢:00", "35791395:00", "0:99999999999" };
+		for (String c : cases) {
+			assertFalse(TrainingTime.isValid(c), c);
+			assertFalse(new TrainingTime(0, 0).isValidTrainingTime(c), c);
+			assertThrows(IllegalArgumentException.class, () -> TrainingTime.parse(c));
+		}
+	}
+
+	/**
+	 * Case.1_3 未設定<br>
+	 * ■試験観点：<br>
+	 * ・空文字・nullは有効とし、未設定の研修時刻となること<br>
+	 * ・未設定の書式は空文字で、時・分はnullであること<br>
+	 */
+	@Test
+	public void testCase1_3() {
+		assertTrue(TrainingTime.isValid(""));
+		assertTrue(TrainingTime.isValid(null));
+		assertSame(TrainingTime.BLANK, TrainingTime.parse(""));
+		assertSame(TrainingTime.BLANK, TrainingTime.parse(null));
+		assertTrue(TrainingTime.BLANK.isBlank());
+		assertTrue(new TrainingTime("").isEmpty());
+		assertEquals("", TrainingTime.BLANK.getFormattedString());
+		assertNull(TrainingTime.BLANK.getHour());
+		assertNull(TrainingTime.BLANK.getMinute());
+	}
+
+	/**
+	 * Case.1_4 共有インスタンス<br>
+	 * ■試験観点：<br>
+	 * ・0:00～23:59は形式によらず同一インスタンスとなること<br>
+	 * ・コンストラクタで生成したインスタンスとも等しいこと<br>
+	 */
+	@Test
+	public void testCase1_4() {
+		assertSame(TrainingTime.parse("9:00"), TrainingTime.parse("0900"));
+		assertSame(TrainingTime.parse("9:00"), TrainingTime.of(9, 0));
+		assertSame(TrainingTime.parse("23:59"), TrainingTime.ofMinutes(23 * 60 + 59));
+		assertEquals(TrainingTime.parse("9:00"), new TrainingTime(9, 0));
+		assertEquals(TrainingTime.parse("9:00").hashCode(), new TrainingTime("0900").hashCode());
+		assertEquals(TrainingTime.parse("25:00"), TrainingTime.of(25, 0));
+		assertThrows(IllegalArgumentException.class, () -> TrainingTime.of(9, 60));
+		assertThrows(IllegalArgumentException.class, () -> new TrainingTime(9, null));
+	}
+
+	/**
+	 * Case.2_1 比較<br>
+	 * ■試験観点：<br>
+	 * ・時刻順に比較されること<br>
+	 * ・未設定は設定済みより前で、未設定・null同士は等しいこと<br>
+	 * ・最大・最小が比較結果に従うこと<br>
+	 */
+	@Test
+	public void testCase2_1() {
+		TrainingTime nine = TrainingTime.parse("09:00");
+		TrainingTime nineThirty = TrainingTime.parse("09:30");
+		TrainingTime tomorrow = TrainingTime.parse("24:10");
+		assertTrue(nine.compareTo(nineThirty) < 0);
+		assertTrue(nineThirty.compareTo(nine) > 0);
+		assertTrue(tomorrow.compareTo(nineThirty) > 0);
+		assertEquals(0, nine.compareTo(TrainingTime.parse("0900")));
+
+		assertTrue(TrainingTime.BLANK.compareTo(nine) < 0);
+		assertTrue(nine.compareTo(TrainingTime.BLANK) > 0);
+		assertTrue(nine.compareTo(null) > 0);
+		assertEquals(0, TrainingTime.BLANK.compareTo(TrainingTime.BLANK));
+		assertEquals(0, TrainingTime.BLANK.compareTo(null));
+
+		assertSame(tomorrow, nine.max(nine, tomorrow, TrainingTime.BLANK, nineThirty));
+		assertSame(TrainingTime.BLANK, nine.min(nine, tomorrow, TrainingTime.BLANK, nineThirty));
+	}
+
+	/**
+	 * Case.2_2 加算・減算<br>
+	 * ■試験観点：<br>
+	 * ・分の繰り上がり・繰り下がりが正しいこと<br>
+	 * ・24時を超える加算ができること<br>
+	 * ・等しい時刻（未設定同士を含む）の減算は0:00となること<br>
+	 * ・小さい時刻から大きい時刻の減算はUnsupportedOperationExceptionとなること<br>
+	 */
+	@Test
+	public void testCase2_2() {
+		assertEquals("10:30", TrainingTime.parse("09:45").add(TrainingTime.parse("00:45")).toString());
+		assertEquals("24:30", TrainingTime.parse("23:30").add(TrainingTime.parse("01:00")).toString());
+		assertEquals("08:45", TrainingTime.parse("18:00").subtract(TrainingTime.parse("09:15")).toString());
+		assertEquals("00:00", TrainingTime.parse("09:00").subtract(TrainingTime.parse("0900")).toString());
+		assertEquals("00:00", TrainingTime.BLANK.subtract(TrainingTime.BLANK).toString());
+		assertThrows(UnsupportedOperationException.class,
+				() -> TrainingTime.parse("09:00").subtract(TrainingTime.parse("09:01")));
+	}
+
+	/**
+	 * Case.2_3 書式・時分の取得<br>
+	 * ■試験観点：<br>
+	 * ・2桁にゼロ埋めしたHH:mm形式となること（24時以降・100時間以上はそのまま）<br>
+	 * ・時・分が取得できること<br>
+	 */
+	@Test
+	public void testCase2_3() {
+		assertEquals("00:00", TrainingTime.of(0, 0).getFormattedString());
+		assertEquals("07:05", TrainingTime.of(7, 5).toString());
+		assertEquals("30:05", TrainingTime.of(30, 5).toString());
+		assertEquals("123:45", TrainingTime.ofMinutes(123 * 60 + 45).toString());
+		assertEquals(Integer.valueOf(30), TrainingTime.of(30, 5).getHour());
+		assertEquals(Integer.valueOf(5), TrainingTime.of(30, 5).getMinute());
+		assertEquals(30 * 60 + 5, TrainingTime.of(30, 5).toMinutes());
+		assertThrows(IllegalStateException.class, () -> TrainingTime.BLANK.toMinutes());
+	}
+
+	/**
+	 * Case.2_4 15分単位の丸め<br>
+	 * ■試験観点：<br>
+	 * ・切り上げ・切り捨てが15分単位となること（46分以降の切り上げは次の時間）<br>
+	 * ・元のインスタンスは変更されないこと<br>
+	 */
+	@Test
+	public void testCase2_4() {
+		TrainingTime time = TrainingTime.parse("09:07");
+		assertEquals("09:15", time.roundUp().toString());
+		assertEquals("09:00", time.roundDown().toString());
+		assertEquals("09:07", time.toString());
+		assertEquals("10:00", TrainingTime.parse("09:46").roundUp().toString());
+		assertEquals("09:45", TrainingTime.parse("09:59").roundDown().toString());
+		assertEquals("09:30", TrainingTime.parse("09:30").roundUp().toString());
+		assertSame(TrainingTime.BLANK, TrainingTime.BLANK.roundUp());
+	}
+
+}